@@ -0,0 +1,184 @@
+/* AdaptiveController.java
+ *
+ * Adjusts the mutation rate, mating probability and selection pressure of GeneticAlgorithm.java during a run.
+ * Every epoch it receives the fewest conflicts and a sampled gene diversity of the population.
+ * While the population is diverse and improving it exploits: less mutation, more mating, stronger selection.
+ * Once the diversity drops below its target or the best conflicts stagnate it explores: more mutation,
+ * less mating, weaker selection, until the search improves again.
+ *
+ * @version: 1.3
+ */
+
+import java.nio.ByteBuffer;
+
+public class AdaptiveController {
+	private double MIN_MUTATION;				//mutation rate bounds, the rate is a probability per offspring
+	private double MAX_MUTATION;
+	private double MIN_MATING;					//mating probability bounds
+	private double MAX_MATING;
+	private double MIN_PRESSURE;				//selection pressure bounds, the exponent applied to the fitness in roulette
+	private double MAX_PRESSURE;
+	private double TARGET_DIVERSITY;			//fraction of differing genes below which the population is too uniform
+	private int STAGNATION_EPOCHS;				//epochs without a better chromosome before the search explores
+	private double mutationRate;
+	private double matingProbability;
+	private double selectionPressure;
+	private int bestConflicts;					//fewest conflicts seen in this run
+	private int stagnation;						//epochs since the fewest conflicts improved
+
+	/* Instantiates the controller with its default bounds.
+	 *
+	 */
+	public AdaptiveController() {
+		MIN_MUTATION = 0.001;
+		MAX_MUTATION = 0.2;
+		MIN_MATING = 0.5;
+		MAX_MATING = 0.95;
+		MIN_PRESSURE = 0.5;
+		MAX_PRESSURE = 3.0;
+		TARGET_DIVERSITY = 0.3;
+		STAGNATION_EPOCHS = 50;
+		reset(MIN_MUTATION, MAX_MATING);
+	}
+
+	/* Starts a run from the configured parameters of the GA.
+	 *
+	 * @param: mutation rate of the GA
+	 * @param: mating probability of the GA
+	 */
+	public void reset(double mutation, double mating) {
+		mutationRate = clamp(mutation, MIN_MUTATION, MAX_MUTATION);
+		matingProbability = clamp(mating, MIN_MATING, MAX_MATING);
+		selectionPressure = 1.0;
+		bestConflicts = Integer.MAX_VALUE;
+		stagnation = 0;
+	}
+
+	/* Adjusts the parameters after an epoch.
+	 *
+	 * @param: fewest conflicts in the population
+	 * @param: sampled fraction of differing genes between chromosomes, 0 for identical chromosomes
+	 */
+	public void update(int best, double diversity) {
+		if(best < bestConflicts) {
+			bestConflicts = best;
+			stagnation = 0;
+		} else {
+			stagnation++;
+		}
+
+		if(diversity < TARGET_DIVERSITY || stagnation >= STAGNATION_EPOCHS) {	//explore
+			mutationRate = clamp(mutationRate * 2.0, MIN_MUTATION, MAX_MUTATION);
+			matingProbability = clamp(matingProbability - 0.05, MIN_MATING, MAX_MATING);
+			selectionPressure = clamp(selectionPressure - 0.25, MIN_PRESSURE, MAX_PRESSURE);
+		} else {																//exploit
+			mutationRate = clamp(mutationRate * 0.8, MIN_MUTATION, MAX_MUTATION);
+			matingProbability = clamp(matingProbability + 0.05, MIN_MATING, MAX_MATING);
+			selectionPressure = clamp(selectionPressure + 0.25, MIN_PRESSURE, MAX_PRESSURE);
+		}
+	}
+
+	/* Gets the bytes writeState needs.
+	 *
+	 * @return: size of the state
+	 */
+	int stateSize() {
+		return 10 * 8 + 3 * 4;
+	}
+
+	/* Writes the bounds and current rates into a checkpoint.
+	 *
+	 * @param: buffer to write into
+	 */
+	void writeState(ByteBuffer buffer) {
+		buffer.putDouble(MIN_MUTATION).putDouble(MAX_MUTATION);
+		buffer.putDouble(MIN_MATING).putDouble(MAX_MATING);
+		buffer.putDouble(MIN_PRESSURE).putDouble(MAX_PRESSURE);
+		buffer.putDouble(TARGET_DIVERSITY).putInt(STAGNATION_EPOCHS);
+		buffer.putDouble(mutationRate).putDouble(matingProbability).putDouble(selectionPressure);
+		buffer.putInt(bestConflicts).putInt(stagnation);
+	}
+
+	/* Restores the bounds and current rates from a checkpoint.
+	 *
+	 * @param: buffer to read from
+	 */
+	void readState(ByteBuffer buffer) {
+		MIN_MUTATION = buffer.getDouble();
+		MAX_MUTATION = buffer.getDouble();
+		MIN_MATING = buffer.getDouble();
+		MAX_MATING = buffer.getDouble();
+		MIN_PRESSURE = buffer.getDouble();
+		MAX_PRESSURE = buffer.getDouble();
+		TARGET_DIVERSITY = buffer.getDouble();
+		STAGNATION_EPOCHS = buffer.getInt();
+		mutationRate = buffer.getDouble();
+		matingProbability = buffer.getDouble();
+		selectionPressure = buffer.getDouble();
+		bestConflicts = buffer.getInt();
+		stagnation = buffer.getInt();
+	}
+
+	/* Limits a value to a range.
+	 *
+	 * @param: the value
+	 * @param: lower bound
+	 * @param: upper bound
+	 * @return: the value within the bounds
+	 */
+	private double clamp(double value, double low, double high) {
+		return Math.max(low, Math.min(high, value));
+	}
+
+	/* Gets the current mutation rate.
+	 *
+	 * @return: probability of mutating an offspring
+	 */
+	public double getMutationRate() {
+		return mutationRate;
+	}
+
+	/* Gets the current mating probability.
+	 *
+	 * @return: probability of two chromosomes mating
+	 */
+	public double getMatingProbability() {
+		return matingProbability;
+	}
+
+	/* Gets the current selection pressure.
+	 *
+	 * @return: exponent applied to the fitness when building the roulette wheel
+	 */
+	public double getSelectionPressure() {
+		return selectionPressure;
+	}
+
+	/* Gets the epochs since the fewest conflicts improved.
+	 *
+	 * @return: stagnant epochs
+	 */
+	public int getStagnation() {
+		return stagnation;
+	}
+
+	/* Sets the bounds of the mutation rate.
+	 *
+	 * @param: lowest mutation rate
+	 * @param: highest mutation rate
+	 */
+	public void setMutationBounds(double low, double high) {
+		MIN_MUTATION = low;
+		MAX_MUTATION = high;
+	}
+
+	/* Sets when the search switches to exploring.
+	 *
+	 * @param: fraction of differing genes below which the population is too uniform
+	 * @param: epochs without a better chromosome
+	 */
+	public void setTriggers(double targetDiversity, int stagnationEpochs) {
+		TARGET_DIVERSITY = targetDiversity;
+		STAGNATION_EPOCHS = stagnationEpochs;
+	}
+}
@@ -0,0 +1,231 @@
+/* BenchmarkGA.java
+ *
+ * Micro benchmarks for the GA operators of GeneticAlgorithm.java and Chromosome.java and for full runs.
+ * The steady-state runs of GeneticAlgorithm.java and CompactGeneticAlgorithm.java use the same capacity,
+ * so the chromosome objects and the primitive arrays of PopulationStore.java can be compared.
+ * Every benchmark is warmed up before it is measured so JIT compilation is not part of the timing,
+ * state the operators build up is reset between iterations outside the timing,
+ * console output of the GA is discarded while measuring, and the heap allocated per operation
+ * and the garbage collections during measurement are reported next to the time per operation.
+ * Usage: java BenchmarkGA [n ...]   (defaults to n = 8 64 256 1024)
+ * For forked runs with JMH see jmh/benchmarks/OperatorBenchmark.java and the jmh profile of pom.xml.
+ *
+ * @version: 1.3
+ */
+
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+
+public class BenchmarkGA {
+	int WARMUP_ITERATIONS;					//iterations run before measuring
+	int MEASURE_ITERATIONS;					//iterations measured
+	long ITERATION_NANOS;					//length of one iteration
+	int RUN_EPOCHS;							//max epoch of the full runs so large boards finish
+	int STEADY_POPULATION;					//capacity of the steady-state runs
+	int FITNESS_DIRTY;						//chromosomes mutated before each getFitness so it has work to do
+	int nextDirty;							//next chromosome mutated for getFitness
+	long sink;								//consumes results so the JIT cannot drop the work
+
+	/* Instantiates the benchmark with its default iteration settings.
+	 *
+	 */
+	public BenchmarkGA() {
+		WARMUP_ITERATIONS = 5;
+		MEASURE_ITERATIONS = 10;
+		ITERATION_NANOS = 200000000L;
+		RUN_EPOCHS = 100;
+		STEADY_POPULATION = 100;
+		FITNESS_DIRTY = 10;
+		nextDirty = 0;
+		sink = 0;
+	}
+
+	/* Benchmarks every operator and a full run for one board size.
+	 *
+	 * @param: size of n queens
+	 */
+	public void benchmark(int n) {
+		GeneticAlgorithm ga = new GeneticAlgorithm(n);
+		GeneticAlgorithm runGA = new GeneticAlgorithm(n);
+		GeneticAlgorithm steadyGA = new GeneticAlgorithm(n);
+		CompactGeneticAlgorithm compactGA = new CompactGeneticAlgorithm(n, STEADY_POPULATION);
+		PopulationStore store = new PopulationStore(n, 4);
+		RandomSource rand = new SplitMix64(n);
+
+		ga.setSolutionTarget(Integer.MAX_VALUE);				//a solution found while initializing would stop with a partial population
+		ga.start();
+		runGA.setEpoch(RUN_EPOCHS);
+		steadyGA.setEpoch(RUN_EPOCHS);
+		steadyGA.setPopulationLimit(STEADY_POPULATION, GeneticAlgorithm.Replacement.WORST);
+		compactGA.setEpoch(RUN_EPOCHS);
+		for(int row = 0; row < 4; row++) {
+			store.addRow();
+			store.initRow(row);
+			for(int i = 0; i < n; i++) {
+				store.exchange(row, i, rand.nextInt(n));
+			}
+			store.computeConflicts(row);
+		}
+		Chromosome chromosome = ga.getFittest(1).get(0);
+		BitboardEvaluator evaluator = new BitboardEvaluator(n);
+		int[] genes = new int[n];
+
+		for(int i = 0; i < n; i++) {
+			genes[i] = chromosome.getGene(i);
+		}
+
+		measure("computeConflicts", n, () -> { chromosome.computeConflicts(); sink += chromosome.getConflicts(); });
+		measure("BitboardEvaluator.conflicts", n, () -> sink += evaluator.conflicts(genes, 0));
+		measure("partiallyMappedCrossover", n, () -> ga.partiallyMappedCrossover(0, 1, 2, 3), () -> ga.getFitness());
+		measure("exchangeMutation", n, () -> ga.exchangeMutation(4, 1), () -> ga.getFitness());
+		// getFitness returns at once when nothing changed, so it is measured after mutations like an epoch's offspring.
+		// Subtract FITNESS_DIRTY times exchangeMutation for the scoring alone.
+		measure("exchangeMutation x" + FITNESS_DIRTY + " + getFitness", n, () -> {
+			for(int i = 0; i < FITNESS_DIRTY; i++) {
+				ga.exchangeMutation(nextDirty, 1);
+				nextDirty = nextDirty + 1 == ga.getPopSize() ? 0 : nextDirty + 1;
+			}
+			ga.getFitness();
+		});
+		measure("rouletteSelection", n, () -> { ga.rouletteSelection(); sink += ga.getSelectedCount(); ga.prepNextEpoch(); });
+		measure("PopulationStore.computeConflicts", n, () -> { store.computeConflicts(0); sink += store.getConflicts(0); });
+		measure("PopulationStore.partiallyMappedCrossover", n, () -> {
+			int crossPoint1 = rand.nextInt(n);
+			int crossPoint2 = rand.nextIntExcept(n, crossPoint1);
+			store.partiallyMappedCrossover(0, 1, 2, 3, Math.min(crossPoint1, crossPoint2), Math.max(crossPoint1, crossPoint2));
+		});
+		measure("algorithm(" + RUN_EPOCHS + " epochs max)", n, () -> { if(runGA.algorithm()) sink++; });
+		measure("steady-state algorithm", n, () -> { if(steadyGA.algorithm()) sink++; });
+		measure("CompactGeneticAlgorithm.algorithm", n, () -> { if(compactGA.algorithm()) sink++; });
+	}
+
+	/* Warms up and measures an operation, then prints time, allocation and garbage collection per operation.
+	 *
+	 * @param: name of the benchmark
+	 * @param: size of n queens
+	 * @param: the operation
+	 */
+	public void measure(String name, int n, Runnable operation) {
+		measure(name, n, operation, () -> {});
+	}
+
+	/* Warms up and measures an operation, resetting its state before every iteration.
+	 * The reset is neither timed nor counted in the allocation.
+	 *
+	 * @param: name of the benchmark
+	 * @param: size of n queens
+	 * @param: the operation
+	 * @param: resets the state the operation builds up
+	 */
+	public void measure(String name, int n, Runnable operation, Runnable reset) {
+		PrintStream console = System.out;
+		long operations = 0;
+		long elapsed = 0;
+		long allocated = 0;
+		long gcCount = 0;
+		long gcTime = 0;
+		long start = 0;
+
+		System.setOut(new PrintStream(OutputStream.nullOutputStream()));
+		try {
+			for(int i = 0; i < WARMUP_ITERATIONS; i++) {
+				reset.run();
+				iterate(operation);
+			}
+
+			gcCount = -collections();
+			gcTime = -collectionTime();
+			for(int i = 0; i < MEASURE_ITERATIONS; i++) {
+				reset.run();
+				allocated -= allocatedBytes();
+				start = System.nanoTime();
+				operations += iterate(operation);
+				elapsed += System.nanoTime() - start;
+				allocated += allocatedBytes();
+			}
+			gcCount += collections();
+			gcTime += collectionTime();
+		} finally {
+			System.setOut(console);
+		}
+
+		System.out.println(String.format("%-42s N=%-5d %14.1f ns/op %12.1f B/op %5d gc %6d ms gc",
+				name, n, (double)elapsed / operations, (double)allocated / operations, gcCount, gcTime));
+	}
+
+	/* Repeats an operation for one iteration.
+	 *
+	 * @param: the operation
+	 * @return: number of times the operation ran
+	 */
+	private long iterate(Runnable operation) {
+		long end = System.nanoTime() + ITERATION_NANOS;
+		long operations = 0;
+
+		do {
+			operation.run();
+			operations++;
+		} while(System.nanoTime() < end);
+
+		return operations;
+	}
+
+	/* Gets the bytes allocated by this thread so far.
+	 *
+	 * @return: allocated bytes, 0 if the JVM does not report them
+	 */
+	private long allocatedBytes() {
+		ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+
+		if(threads instanceof com.sun.management.ThreadMXBean) {
+			return ((com.sun.management.ThreadMXBean)threads).getThreadAllocatedBytes(Thread.currentThread().getId());
+		}
+		return 0;
+	}
+
+	/* Gets the number of garbage collections so far.
+	 *
+	 * @return: number of collections
+	 */
+	private long collections() {
+		long count = 0;
+
+		for(GarbageCollectorMXBean gc: ManagementFactory.getGarbageCollectorMXBeans()) {
+			count += Math.max(gc.getCollectionCount(), 0);
+		}
+		return count;
+	}
+
+	/* Gets the time spent in garbage collection so far.
+	 *
+	 * @return: collection time in milliseconds
+	 */
+	private long collectionTime() {
+		long time = 0;
+
+		for(GarbageCollectorMXBean gc: ManagementFactory.getGarbageCollectorMXBeans()) {
+			time += Math.max(gc.getCollectionTime(), 0);
+		}
+		return time;
+	}
+
+	public static void main(String args[]) {
+		BenchmarkGA benchmark = new BenchmarkGA();
+		int[] sizes = new int[] {8, 64, 256, 1024};
+
+		if(args.length > 0) {
+			sizes = new int[args.length];
+			for(int i = 0; i < args.length; i++) {
+				sizes[i] = Integer.parseInt(args[i]);
+			}
+		}
+
+		for(int n: sizes) {
+			benchmark.benchmark(n);
+		}
+		System.out.println("sink " + benchmark.sink);
+	}
+}
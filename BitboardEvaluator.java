@@ -0,0 +1,158 @@
+/* BitboardEvaluator.java
+ *
+ * Counts the conflicts of a queen placement with bitboards instead of per diagonal int counters.
+ * The queens on each diagonal are counted in bit-sliced form: plane p holds bit p of the count of every
+ * diagonal, one bit per diagonal, so adding a queen is a ripple carry through a few words.
+ * The sum of k * (k - 1) over all diagonals is then read off the planes with Long.bitCount.
+ * When the 2n - 1 diagonals of a direction fit in one long (n <= 32) every plane is a single word,
+ * larger boards use a long[] of words per plane. Evaluation allocates nothing.
+ * BenchmarkGA.java measures it next to the int diagonal counters of Chromosome.java and PopulationStore.java.
+ *
+ * @version: 1.3
+ */
+
+import java.util.Arrays;
+
+public class BitboardEvaluator {
+	private int MAX_LENGTH;						//n size
+	private int words;							//longs per plane, enough for 2n - 1 diagonals
+	private int planes;							//bits needed to count up to n queens on a diagonal
+	private long[] mainPlanes;					//bit-sliced queen counts of the row + column diagonals, plane after plane
+	private long[] antiPlanes;					//bit-sliced queen counts of the row - column diagonals, plane after plane
+
+	/* Instantiates the evaluator for a board size.
+	 *
+	 * @param: size of n
+	 */
+	public BitboardEvaluator(int n) {
+		MAX_LENGTH = n;
+		words = (2 * MAX_LENGTH - 1 + 63) >>> 6;
+		planes = 32 - Integer.numberOfLeadingZeros(MAX_LENGTH);
+		mainPlanes = new long[planes * words];
+		antiPlanes = new long[planes * words];
+	}
+
+	/* Computes the conflicts of a placement, counting k * (k - 1) for every diagonal holding k queens.
+	 *
+	 * @param: queen positions
+	 * @param: index of the first queen in the array
+	 * @return: number of conflicts
+	 */
+	public int conflicts(int[] genes, int offset) {
+		int column = 0;
+
+		Arrays.fill(mainPlanes, 0L);
+		Arrays.fill(antiPlanes, 0L);
+
+		if(words == 1) {
+			for(int i = 0; i < MAX_LENGTH; i++) {
+				column = genes[offset + i];
+				incrementMask(mainPlanes, 1L << (i + column));
+				incrementMask(antiPlanes, 1L << (i - column + MAX_LENGTH - 1));
+			}
+		} else {
+			for(int i = 0; i < MAX_LENGTH; i++) {
+				column = genes[offset + i];
+				incrementDiagonal(mainPlanes, i + column);
+				incrementDiagonal(antiPlanes, i - column + MAX_LENGTH - 1);
+			}
+		}
+
+		// Every queen sits on one diagonal of each direction, so the counts of a direction sum to n.
+		return (int)(sumOfSquares(mainPlanes) + sumOfSquares(antiPlanes) - 2L * MAX_LENGTH);
+	}
+
+	/* Checks whether a placement has no two queens on a diagonal.
+	 * Only the occupied diagonals are marked, a solution occupies n diagonals in each direction.
+	 *
+	 * @param: queen positions
+	 * @param: index of the first queen in the array
+	 * @return: true if the placement is a solution
+	 */
+	public boolean isSolution(int[] genes, int offset) {
+		int column = 0;
+		int main = 0;
+		int anti = 0;
+
+		Arrays.fill(mainPlanes, 0, words, 0L);
+		Arrays.fill(antiPlanes, 0, words, 0L);
+
+		for(int i = 0; i < MAX_LENGTH; i++) {
+			column = genes[offset + i];
+			main = i + column;
+			anti = i - column + MAX_LENGTH - 1;
+			if((mainPlanes[main >>> 6] & (1L << main)) != 0 || (antiPlanes[anti >>> 6] & (1L << anti)) != 0) {
+				return false;
+			}
+			mainPlanes[main >>> 6] |= 1L << main;
+			antiPlanes[anti >>> 6] |= 1L << anti;
+		}
+		return true;
+	}
+
+	/* Adds one to the count of the diagonal in a mask, for boards whose planes are one word.
+	 *
+	 * @param: single word planes
+	 * @param: mask with the bit of the diagonal
+	 */
+	private void incrementMask(long[] counter, long bit) {
+		long carry = bit;
+		long old = 0;
+
+		for(int p = 0; p < planes && carry != 0; p++) {
+			old = counter[p];
+			counter[p] = old ^ carry;
+			carry &= old;
+		}
+	}
+
+	/* Adds one to the count of a diagonal, for boards whose planes span several words.
+	 *
+	 * @param: multiword planes
+	 * @param: index of the diagonal
+	 */
+	private void incrementDiagonal(long[] counter, int diagonal) {
+		long bit = 1L << diagonal;					//shifts only use the low 6 bits of the index
+		int index = diagonal >>> 6;
+		long old = 0;
+
+		for(int p = 0; p < planes; p++, index += words) {
+			old = counter[index];
+			counter[index] = old ^ bit;
+			if((old & bit) == 0) {
+				return;
+			}
+		}
+	}
+
+	/* Sums the squared counts of all diagonals of one direction.
+	 * With count k = sum of 2^p b_p, k * k = sum over plane pairs of 2^(p + q) b_p b_q,
+	 * so each pair of planes contributes the population count of their intersection.
+	 *
+	 * @param: bit-sliced counts
+	 * @return: sum of the squared counts
+	 */
+	private long sumOfSquares(long[] counter) {
+		long sum = 0;
+		long pairs = 0;
+
+		for(int p = 0; p < planes; p++) {
+			for(int q = p; q < planes; q++) {
+				pairs = 0;
+				for(int w = 0; w < words; w++) {
+					pairs += Long.bitCount(counter[p * words + w] & counter[q * words + w]);
+				}
+				sum += (p == q ? pairs : 2 * pairs) << (p + q);
+			}
+		}
+		return sum;
+	}
+
+	/* Gets the number of longs per plane.
+	 *
+	 * @return: 1 for the single word fast path
+	 */
+	public int getWords() {
+		return words;
+	}
+}
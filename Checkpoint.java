@@ -0,0 +1,177 @@
+/* Checkpoint.java
+ *
+ * Snapshots of an in-flight GeneticAlgorithm.java run, so a long run survives a JVM restart.
+ * The GA copies its state (parameters, population genes and conflicts, epoch, offspring and mutation
+ * counters, adaptive rates and random number state) into a buffer between two epochs. A background
+ * thread writes the buffer with a FileChannel to a temporary file and moves it over the snapshot,
+ * so the snapshot on disk is always complete. A snapshot is skipped while the previous one is being written,
+ * the evolution thread never waits for the disk.
+ * Resume with: GeneticAlgorithm ga = Checkpoint.load(file); ga.resume();
+ * A run snapshotted every few epochs goes on taking snapshots into the same file after it is resumed.
+ *
+ * @version: 1.3
+ */
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+public class Checkpoint {
+	static final int MAGIC = 0x47414332;					//"GAC2"
+	private Path file;
+	private Path temporary;
+	private ExecutorService writer;							//single thread writing the snapshots
+	private Future<?> pending;								//snapshot being written
+	private ByteBuffer buffer;								//reused once the previous snapshot is written
+	private volatile int saved;								//snapshots written
+
+	/* Instantiates a checkpoint writing to a file.
+	 *
+	 * @param: a string filename
+	 */
+	public Checkpoint(String filename) {
+		file = Paths.get(filename);
+		temporary = Paths.get(filename + ".tmp");
+		writer = Executors.newSingleThreadExecutor(runnable -> {
+			Thread thread = new Thread(runnable, "checkpoint-writer");
+			thread.setDaemon(true);
+			return thread;
+		});
+		pending = null;
+		buffer = null;
+		saved = 0;
+	}
+
+	/* Snapshots the state of a GA and writes it in the background.
+	 * Call between two epochs, from the thread evolving the GA.
+	 *
+	 * @param: the genetic algorithm
+	 * @return: false if the snapshot was skipped because the previous one is still being written
+	 */
+	public boolean save(GeneticAlgorithm ga) throws IOException {
+		int size = 4 + ga.stateSize();							//magic, then the state
+
+		if(pending != null) {
+			if(!pending.isDone()) {
+				return false;
+			}
+			await();
+		}
+
+		if(buffer == null || buffer.capacity() < size) {
+			buffer = ByteBuffer.allocate(size);
+		}
+		buffer.clear();
+		buffer.putInt(MAGIC);
+		ga.writeState(buffer);
+		buffer.flip();
+
+		final ByteBuffer snapshot = buffer;
+		pending = writer.submit(() -> { write(snapshot); return null; });
+		return true;
+	}
+
+	/* Writes a snapshot to the temporary file and moves it over the snapshot file.
+	 *
+	 * @param: the snapshot
+	 */
+	private void write(ByteBuffer snapshot) throws IOException {
+		FileChannel channel = FileChannel.open(temporary, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+
+		try {
+			while(snapshot.hasRemaining()) {
+				channel.write(snapshot);
+			}
+			channel.force(false);
+		} finally {
+			channel.close();
+		}
+
+		try {
+			Files.move(temporary, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+		} catch (AtomicMoveNotSupportedException e) {
+			Files.move(temporary, file, StandardCopyOption.REPLACE_EXISTING);
+		}
+		saved++;
+	}
+
+	/* Waits for the snapshot being written and reports its failure.
+	 *
+	 */
+	private void await() throws IOException {
+		try {
+			pending.get();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		} catch (ExecutionException e) {
+			throw new IOException("Checkpoint failed: " + file, e.getCause());
+		} finally {
+			pending = null;
+		}
+	}
+
+	/* Waits for the last snapshot to be written and stops the writer thread.
+	 *
+	 */
+	public void close() throws IOException {
+		try {
+			if(pending != null) {
+				await();
+			}
+		} finally {
+			writer.shutdown();
+		}
+	}
+
+	/* Gets the number of snapshots written.
+	 *
+	 * @return: number of snapshots
+	 */
+	public int getSaved() {
+		return saved;
+	}
+
+	/* Reads a snapshot and restores the run into a new GA, ready to continue with resume().
+	 * If the run was snapshotted every few epochs, the GA keeps snapshotting into the file at the same interval.
+	 *
+	 * @param: a string filename
+	 * @return: the genetic algorithm as it was when the snapshot was taken
+	 */
+	public static GeneticAlgorithm load(String filename) throws IOException {
+		FileChannel channel = FileChannel.open(Paths.get(filename), StandardOpenOption.READ);
+		ByteBuffer snapshot = null;
+		GeneticAlgorithm ga = null;
+
+		try {
+			snapshot = ByteBuffer.allocate((int)channel.size());
+			while(snapshot.hasRemaining()) {
+				if(channel.read(snapshot) < 0) {
+					throw new IOException("Checkpoint cut short: " + filename);
+				}
+			}
+		} finally {
+			channel.close();
+		}
+		snapshot.flip();
+
+		if(snapshot.remaining() < 8 || snapshot.getInt() != MAGIC) {
+			throw new IOException("Not a GA checkpoint: " + filename);
+		}
+		ga = new GeneticAlgorithm(snapshot.getInt(snapshot.position()));	//the state starts with n
+		ga.readState(snapshot);
+		if(ga.getCheckpointInterval() > 0) {
+			ga.setCheckpoint(filename, ga.getCheckpointInterval());
+		}
+		return ga;
+	}
+}
@@ -8,6 +8,8 @@
  * @version: 1.3
  */
 
+import java.util.Arrays;
+
 public class Chromosome implements Comparable<Chromosome>{
 	private int MAX_LENGTH; 					//n size
 	private int[] gene; 						//contains the location of each queen
@@ -15,20 +17,53 @@ public class Chromosome implements Comparable<Chromosome>{
 	private int conflicts; 						//number of collisions
 	private boolean selected; 					//if selected for mating
 	private double selectionProbability; 		//probabiblity of beaing selected for mating in roulette
+	private int birth;							//order in which the chromosome entered the population
+	private int[] mainDiagonals;				//number of queens on each row + column diagonal
+	private int[] antiDiagonals;				//number of queens on each row - column diagonal
 	
 	/* Instantiate the chromosome.
 	 *
 	 * @param: size of n
 	 */
 	public Chromosome(int n) {
+		this(n, true);
+	}
+
+	/* Instantiate the chromosome, optionally leaving the genes unset for offspring whose genes are copied right away.
+	 *
+	 * @param: size of n
+	 * @param: whether to place the queens on the diagonal
+	 */
+	Chromosome(int n, boolean initialize) {
 		MAX_LENGTH = n;
 		gene = new int[MAX_LENGTH];
+		mainDiagonals = new int[2 * MAX_LENGTH - 1];
+		antiDiagonals = new int[2 * MAX_LENGTH - 1];
 		fitness = 0.0;
 		conflicts = 0;
 		selected = false;
 		selectionProbability = 0.0;
+		birth = 0;
 		
-		initChromosome();
+		if(initialize) {
+			initChromosome();
+		}
+	}
+
+	/* Instantiate a copy of a chromosome.
+	 *
+	 * @param: chromosome to copy
+	 */
+	public Chromosome(Chromosome c) {
+		MAX_LENGTH = c.MAX_LENGTH;
+		gene = c.gene.clone();
+		mainDiagonals = c.mainDiagonals.clone();
+		antiDiagonals = c.antiDiagonals.clone();
+		fitness = c.fitness;
+		conflicts = c.conflicts;
+		selected = false;
+		selectionProbability = 0.0;
+		birth = c.birth;
 	}
 
 	/* Compares two chromosomes.
@@ -40,52 +75,41 @@ public class Chromosome implements Comparable<Chromosome>{
 	}
 
 	/* Computes the conflicts in the nxn board.
+	 * Rebuilds the diagonal counters from the genes so later changes can be tracked incrementally.
 	 *
 	 */
 	public void computeConflicts() { //compute the number of conflicts to calculate fitness
-		String board[][] = new String[MAX_LENGTH][MAX_LENGTH]; //initialize board
-		int x = 0; //row
-        int y = 0; //column
-        int tempx = 0; //temprow
-        int tempy = 0; //temcolumn
-        
-        int dx[] = new int[] {-1, 1, -1, 1}; //to check for diagonal
-        int dy[] = new int[] {-1, 1, 1, -1}; //paired with dx to check for diagonal
-        
-        boolean done = false; //used to check is checking fo diagonal is out of bounds
-        int conflicts = 0; //number of conflicts found
-        
-        clearBoard(board); //clears the board into empty strings
-        plotQueens(board); // plots the Q in the board
- 
-        // Walk through each of the Queens and compute the number of conflicts.
-        for(int i = 0; i < MAX_LENGTH; i++) {
-            x = i;
-            y = gene[i];
-
-            // Check diagonals.
-            for(int j = 0; j < 4; j++) { // because of dx and dy where there are 4 directions for diagonal searching for conflicts
-                tempx = x;
-                tempy = y; // store coordinate in temp
-                done = false;
-                
-                while(!done) {//traverse the diagonals
-                    tempx += dx[j];
-                    tempy += dy[j];
-                    
-                    if((tempx < 0 || tempx >= MAX_LENGTH) || (tempy < 0 || tempy >= MAX_LENGTH)) { //if exceeds board
-                        done = true;
-                    } else {
-                        if(board[tempx][tempy].equals("Q")) {
-                            conflicts++;
-                        }
-                    }
-                }
-            }
-        }
+		int conflicts = 0; //number of conflicts found
 
-        this.conflicts = conflicts; //set conflicts of this chromosome
-        
+		Arrays.fill(mainDiagonals, 0);
+		Arrays.fill(antiDiagonals, 0);
+
+		for(int i = 0; i < MAX_LENGTH; i++) { //every queen attacks the queens already counted on its two diagonals
+			conflicts += placeQueen(i, gene[i]);
+		}
+
+		this.conflicts = conflicts; //set conflicts of this chromosome
+	}
+
+	/* Adds a queen to the diagonal counters.
+	 * A diagonal holding k queens contributes k * (k - 1) conflicts, so the k-th queen adds 2 * (k - 1).
+	 *
+	 * @param: row of the queen
+	 * @param: column of the queen
+	 * @return: number of conflicts added
+	 */
+	private int placeQueen(int row, int column) {
+		return 2 * (mainDiagonals[row + column]++ + antiDiagonals[row - column + MAX_LENGTH - 1]++);
+	}
+
+	/* Removes a queen from the diagonal counters.
+	 *
+	 * @param: row of the queen
+	 * @param: column of the queen
+	 * @return: number of conflicts removed
+	 */
+	private int removeQueen(int row, int column) {
+		return 2 * (--mainDiagonals[row + column] + --antiDiagonals[row - column + MAX_LENGTH - 1]);
 	}
 
 	/* Plots the queens in the board.
@@ -117,6 +141,7 @@ public class Chromosome implements Comparable<Chromosome>{
 		for(int i = 0; i < MAX_LENGTH; i++) {
 			gene[i] = i;
 		}
+		computeConflicts();
 	}
 	
 	/* Gets the gene/data on a specified index.
@@ -128,13 +153,80 @@ public class Chromosome implements Comparable<Chromosome>{
 		return gene[index];
 	}
 
-	/* Sets the gene/data on a specified index.
+	/* Sets the gene/data on a specified index. The conflicts are updated in constant time.
 	 *
 	 * @param: index of data
 	 * @param: new position of queen
 	 */
 	public void setGene(int index, int position) {
+		conflicts -= removeQueen(index, gene[index]);
 		this.gene[index] = position;
+		conflicts += placeQueen(index, position);
+	}
+
+	/* Sets all genes/data at once and computes the conflicts.
+	 *
+	 * @param: position of the queen on each index
+	 */
+	public void setGenes(int[] genes) {
+		System.arraycopy(genes, 0, gene, 0, MAX_LENGTH);
+		computeConflicts();
+	}
+
+	/* Copies the genes/data and conflicts of another chromosome of the same size.
+	 *
+	 * @param: chromosome to copy from
+	 */
+	public void copyGenes(Chromosome c) {
+		System.arraycopy(c.gene, 0, gene, 0, MAX_LENGTH);
+		System.arraycopy(c.mainDiagonals, 0, mainDiagonals, 0, mainDiagonals.length);
+		System.arraycopy(c.antiDiagonals, 0, antiDiagonals, 0, antiDiagonals.length);
+		conflicts = c.conflicts;
+	}
+
+	/* Exchanges the genes/data on two indexes. The conflicts are updated in constant time.
+	 *
+	 * @param: index of first data
+	 * @param: index of second data
+	 */
+	public void swapGenes(int index1, int index2) {
+		int position = gene[index1];
+
+		setGene(index1, gene[index2]);
+		setGene(index2, position);
+	}
+	
+	/* Computes the change in conflicts an exchange of two genes would cause, in constant time.
+	 * The diagonal counters are updated for the exchange and restored, the genes are left unchanged.
+	 *
+	 * @param: index of first data
+	 * @param: index of second data
+	 * @return: conflicts after the exchange minus conflicts before it
+	 */
+	public int swapDelta(int index1, int index2) {
+		int position1 = gene[index1];
+		int position2 = gene[index2];
+		int delta = 0;
+
+		delta -= removeQueen(index1, position1);
+		delta -= removeQueen(index2, position2);
+		delta += placeQueen(index1, position2);
+		delta += placeQueen(index2, position1);
+
+		removeQueen(index2, position1);
+		removeQueen(index1, position2);
+		placeQueen(index2, position2);
+		placeQueen(index1, position1);
+		return delta;
+	}
+
+	/* Checks whether the queen on an index shares a diagonal with another queen.
+	 *
+	 * @param: index of data
+	 * @return: true if the queen is in conflict
+	 */
+	public boolean isAttacked(int index) {
+		return mainDiagonals[index + gene[index]] > 1 || antiDiagonals[index - gene[index] + MAX_LENGTH - 1] > 1;
 	}
 	
 	/* Gets the fitness of a chromosome.
@@ -200,6 +292,22 @@ public class Chromosome implements Comparable<Chromosome>{
 	public void setSelectionProbability(double selectionProbability) {
 		this.selectionProbability = selectionProbability;
 	}
+
+	/* Gets the birth order of the chromosome.
+	 *
+	 * @return: birth order of the chromosome
+	 */
+	public int getBirth() {
+		return birth;
+	}
+
+	/* Sets the birth order of the chromosome.
+	 *
+	 * @param: new birth order of the chromosome
+	 */
+	public void setBirth(int birth) {
+		this.birth = birth;
+	}
 	
 	 /* Gets the max length.
 	 *
@@ -0,0 +1,400 @@
+/* CompactGeneticAlgorithm.java
+ *
+ * Solves the N-Queens puzzle using a steady-state Genetic Algorithm on a PopulationStore.java
+ * Follows GeneticAlgorithm.java (roulette selection, partially mapped crossover, exchange mutation)
+ * but keeps the population in primitive arrays of fixed capacity, so the operators never create chromosomes.
+ * Offspring replace the most conflicted individual once the store is full.
+ *
+ * @version: 1.3
+ */
+
+import java.util.ArrayList;
+
+public class CompactGeneticAlgorithm {
+	/*GA PARAMETERS*/
+	private int MAX_LENGTH;                 // chess board width. or n in n queens
+	private int START_SIZE;                 // Population size at start.
+	private int MAX_POPULATION;             // Population capacity.
+	private int MAX_EPOCHS;                 // Arbitrary number of test cycles.
+	private double MATING_PROBABILITY;      // Probability of two chromosomes mating. Range: 0.0 < MATING_PROBABILITY < 1.0
+	private double MUTATION_RATE;           // Mutation Rate. Range: 0.0 < MUTATION_RATE < 1.0
+	private int MIN_SELECT;                 // Minimum parents allowed for selection.
+	private int MAX_SELECT;                 // Maximum parents allowed for selection. Range: MIN_SELECT < MAX_SELECT < START_SIZE
+	private int OFFSPRING_PER_GENERATION;   // New offspring created per generation. Range: 0 < OFFSPRING_PER_GENERATION < MAX_SELECT.
+	private int MINIMUM_SHUFFLES;           // For randomizing starting chromosomes
+	private int MAXIMUM_SHUFFLES;
+
+	private int nextMutation;               // Offspring number of the next mutation.
+	private PopulationStore population;
+	private ArrayList<Chromosome> solutions;
+	private int[] parents;                  // Rows selected for mating in this epoch.
+	private int parentCount;
+	private RouletteWheel wheel;            // Selection wheel, rebuilt every epoch.
+	private RandomSource rand;              // Random numbers of the current run.
+	private RandomSource seedSource;        // Generator each run splits its random numbers from.
+	private int childCount;
+	private int mutations;
+	private int epoch;
+	private int births;                     // Birth order handed to the next row.
+	private int epochBirths;                // Birth order of the first offspring of the current epoch.
+	private int bestConflicts;              // Fewest conflicts reached in this run.
+	private GAListener listener;            // Receives the progress of the run.
+	private int LISTENER_SAMPLE;            // Epochs between epoch events.
+
+	/* Instantiates the genetic algorithm along with its parameters.
+	 *
+	 * @param: size of n queens
+	 * @param: population capacity
+	 */
+	public CompactGeneticAlgorithm(int n, int maxPopulation) {
+		MAX_LENGTH = n;
+		START_SIZE = 40;
+		MAX_POPULATION = Math.max(maxPopulation, START_SIZE);
+		MAX_EPOCHS = 1000;
+		MATING_PROBABILITY = 0.7;
+		MUTATION_RATE = 0.001;
+		MIN_SELECT = 10;
+		MAX_SELECT = 30;
+		OFFSPRING_PER_GENERATION = 20;
+		MINIMUM_SHUFFLES = 8;
+		MAXIMUM_SHUFFLES = 20;
+		population = new PopulationStore(MAX_LENGTH, MAX_POPULATION);
+		solutions = new ArrayList<Chromosome>();
+		parents = new int[MAX_SELECT];
+		wheel = new RouletteWheel(MAX_POPULATION);
+		seedSource = new SplitMix64();
+		listener = GAListener.NONE;
+		LISTENER_SAMPLE = 1;
+		epoch = 0;
+	}
+
+	/* Starts the genetic algorithm solving for n queens.
+	 *
+	 * @return: true if a solution was found
+	 */
+	public boolean algorithm() {
+		boolean done = false;
+
+		start();
+
+		while(!done) {
+			done = nextEpoch();
+		}
+
+		return finish();
+	}
+
+	/* Resets the run and creates the starting population.
+	 *
+	 */
+	public void start() {
+		int shuffles = 0;
+		int row = 0;
+
+		population.clear();
+		solutions = new ArrayList<Chromosome>();
+		rand = seedSource.split();
+		childCount = 0;
+		mutations = 0;
+		epoch = 0;
+		births = 0;
+		epochBirths = 0;
+		parentCount = 0;
+		bestConflicts = Integer.MAX_VALUE;
+		scheduleMutation(0);
+
+		for(int i = 0; i < START_SIZE; i++) {
+			row = population.addRow();
+			population.initRow(row);
+			population.setBirth(row, births++);
+
+			// Randomly choose the number of shuffles to perform.
+			shuffles = getRandomNumber(MINIMUM_SHUFFLES, MAXIMUM_SHUFFLES);
+			exchangeMutation(row, shuffles);
+		}
+	}
+
+	/* Evolves the population by one epoch.
+	 *
+	 * @return: true if a solution was found or the max epoch was reached
+	 */
+	public boolean nextEpoch() {
+		boolean done = false;
+		int best = Integer.MAX_VALUE;
+
+		for(int row = 0; row < population.size(); row++) {
+			if(population.getConflicts(row) == 0) {			//if solution found
+				done = true;
+			}
+			best = Math.min(best, population.getConflicts(row));
+		}
+
+		if(best < bestConflicts) {
+			bestConflicts = best;
+			listener.bestImproved(epoch, bestConflicts);
+		}
+
+		if(epoch == MAX_EPOCHS) {							//if Max Number of Cycles
+			done = true;
+		}
+
+		population.computeFitness();
+
+		rouletteSelection();
+
+		mating();
+
+		prepNextEpoch();
+
+		epoch++;
+		if(epoch % LISTENER_SAMPLE == 0) {
+			listener.epochCompleted(epoch, best);
+		}
+
+		return done;
+	}
+
+	/* Ends the run and collects the solutions in the population.
+	 *
+	 * @return: true if a solution was found
+	 */
+	public boolean finish() {
+		for(int row = 0; row < population.size(); row++) {
+			if(population.getConflicts(row) == 0) {
+				solutions.add(population.toChromosome(row));
+				listener.solutionFound(epoch, solutions.get(solutions.size() - 1));
+			}
+		}
+
+		listener.runFinished(epoch, !solutions.isEmpty(), mutations, childCount);
+
+		return !solutions.isEmpty();
+	}
+
+	/* Starts the mating process with the selected rows.
+	 *
+	 */
+	public void mating() {
+		int parentA = 0;
+		int parentB = 0;
+		int newIndex1 = 0;
+		int newIndex2 = 0;
+		int crossPoint1 = 0;
+		int crossPoint2 = 0;
+		int tempData = 0;
+		int rows = 0;
+
+		epochBirths = births;
+		for(int i = 0; i < OFFSPRING_PER_GENERATION && parentCount > 1; i++) {
+			parentA = rand.nextInt(parentCount);
+			// Test probability of mating.
+			if(rand.nextDouble() < MATING_PROBABILITY) {
+				parentB = rand.nextInt(parentCount - 1);		//the last slot stands in for parentA
+				if(parentB == parentA) {
+					parentB = parentCount - 1;
+				}
+				rows = population.size();
+				newIndex1 = addOffspring(-1);
+				newIndex2 = newIndex1 < 0 ? -1 : addOffspring(newIndex1);
+				if(newIndex2 < 0) {							//no room left in this epoch
+					if(newIndex1 == rows) {						//a new row is removed, a replaced row was not changed yet
+						population.removeLastRow();
+					}
+					return;
+				}
+				population.setBirth(newIndex1, births++);		//both rows are taken only once both were found
+				population.setBirth(newIndex2, births++);
+
+				crossPoint1 = getRandomNumber(0, MAX_LENGTH - 1);
+				crossPoint2 = getExclusiveRandomNumber(MAX_LENGTH, crossPoint1);
+				if(crossPoint2 < crossPoint1) {
+					tempData = crossPoint1;
+					crossPoint1 = crossPoint2;
+					crossPoint2 = tempData;
+				}
+				population.partiallyMappedCrossover(parents[parentA], parents[parentB], newIndex1, newIndex2, crossPoint1, crossPoint2);
+				population.computeConflicts(newIndex1);
+				population.computeConflicts(newIndex2);
+
+				if(childCount == nextMutation) {
+					exchangeMutation(newIndex1, 1);
+					scheduleMutation(childCount + 1);
+				}
+				if(childCount + 1 == nextMutation) {
+					exchangeMutation(newIndex2, 1);
+					scheduleMutation(childCount + 2);
+				}
+
+				childCount += 2;
+			}
+		} // i
+	}
+
+	/* Schedules the next mutated offspring, as in GeneticAlgorithm.java: every offspring is mutated
+	 * with probability MUTATION_RATE, so the number of offspring skipped is drawn at once.
+	 *
+	 * @param: number of the first offspring that may be mutated
+	 */
+	private void scheduleMutation(int from) {
+		nextMutation = (int)Math.min((long)from + rand.nextGeometric(MUTATION_RATE), Integer.MAX_VALUE);
+	}
+
+	/* Finds a row for an offspring. Once the store is full the offspring replaces the most
+	 * conflicted row which is neither a selected parent nor an offspring of this epoch.
+	 * The row only belongs to the offspring once its birth is set.
+	 *
+	 * @param: row already taken by the other offspring, -1 for none
+	 * @return: index of the row, -1 if no row can be replaced
+	 */
+	public int addOffspring(int taken) {
+		int row = population.addRow();
+
+		if(row < 0) {
+			for(int i = 0; i < population.size(); i++) {
+				if(i != taken && !population.isSelected(i) && population.getBirth(i) < epochBirths
+						&& (row < 0 || population.getConflicts(i) > population.getConflicts(row))) {
+					row = i;
+				}
+			}
+		}
+		return row;
+	}
+
+
+	/* Chooses selected parents based on roulette selection.
+	 * The wheel is built once per epoch and each spin is a binary search over it.
+	 *
+	 */
+	public void rouletteSelection() {
+		int maximumToSelect = getRandomNumber(MIN_SELECT, MAX_SELECT);
+		int row = 0;
+
+		wheel.reset();
+		for(int i = 0; i < population.size(); i++) {
+			wheel.add(population.getFitness(i));
+		}
+
+		parentCount = 0;
+		for(int i = 0; i < maximumToSelect; i++) {							//selects parents
+			row = wheel.spin(rand);
+			if(!population.isSelected(row)) {								//each parent is listed once
+				population.setSelected(row, true);
+				parents[parentCount++] = row;
+			}
+		}
+	}
+
+	/* Resets all flags in the selection
+	 *
+	 */
+	public void prepNextEpoch() {
+		for(int i = 0; i < parentCount; i++) {
+			population.setSelected(parents[i], false);
+		}
+		parentCount = 0;
+	}
+
+	/* Changes the position of the queens in a row randomly according to the number of exchanges
+	 *
+	 * @param: index of the row
+	 * @param: number of exhanges
+	 */
+	public void exchangeMutation(int row, int exchanges) {
+		int gene1 = 0;
+		int gene2 = 0;
+
+		for(int i = 0; i < exchanges; i++) {
+			gene1 = getRandomNumber(0, MAX_LENGTH - 1);
+			gene2 = getExclusiveRandomNumber(MAX_LENGTH, gene1);
+			population.exchange(row, gene1, gene2);
+		}
+		population.computeConflicts(row);
+		mutations++;
+	}
+
+	/* Gets a random number with the exception of the parameter, drawn directly without retrying
+	 *
+	 * @param: the bound, numbers are below it
+	 * @param: number to to be chosen
+	 * @return: random number in [0, high) other than except
+	 */ 
+	public int getExclusiveRandomNumber(int high, int except) {
+		return rand.nextIntExcept(high, except);
+	}
+
+	/* Gets a random number in the range of the parameters
+	 *
+	 * @param: the minimum random number
+	 * @param: the maximum random number
+	 * @return: random number in [low, high], every value equally likely
+	 */
+	public int getRandomNumber(int low, int high) {
+		return rand.nextInt(low, high);
+	}
+
+	/* gets the solutions
+	 *
+	 * @return: solutions
+	 */
+	public ArrayList<Chromosome> getSolutions() {
+		return solutions;
+	}
+
+	/* gets the epoch
+	 *
+	 * @return: epoch
+	 */
+	public int getEpoch() {
+		return epoch;
+	}
+
+	/* gets the population size
+	 *
+	 * @return: pop size
+	 */
+	public int getPopSize() {
+		return population.size();
+	}
+
+	/* sets the listener receiving the progress of the runs
+	 *
+	 * @param: the listener, GAListener.NONE for none
+	 * @param: epochs between epoch events
+	 */
+	public void setListener(GAListener newListener, int sample) {
+		this.listener = newListener;
+		this.LISTENER_SAMPLE = Math.max(1, sample);
+	}
+
+	/* sets the seed of the random numbers, runs started after it are reproducible
+	 *
+	 * @param: the seed
+	 */ 
+	public void setSeed(long seed) {
+		this.seedSource = new SplitMix64(seed);
+	}
+
+	/* sets the generator the random numbers of each run are split from
+	 *
+	 * @param: the generator
+	 */ 
+	public void setRandomSource(RandomSource source) {
+		this.seedSource = source;
+	}
+
+	/* sets the mutation rate
+	 *
+	 * @param: new mutation rate value
+	 */
+	public void setMutation(double newMutation) {
+		this.MUTATION_RATE = newMutation;
+	}
+
+	/* sets the new max epoch
+	 *
+	 * @param: new max epoch value
+	 */
+	public void setEpoch(int newMaxEpoch) {
+		this.MAX_EPOCHS = newMaxEpoch;
+	}
+}
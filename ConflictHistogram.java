@@ -0,0 +1,190 @@
+/* ConflictHistogram.java
+ *
+ * Number of individuals with each conflicts value, used by GeneticAlgorithm.java for the fewest and most
+ * conflicts in the population. Counts are kept in an int array indexed by conflicts / 2 (conflicts are
+ * always even), grown on demand, and the fewest and most conflicts are tracked as individuals come and go.
+ * When the last individual with the fewest or most conflicts leaves, the next value is found through
+ * a bitset of the occupied values and a summary bitset of its non-empty words.
+ * Nothing is allocated unless a value beyond the array is added.
+ *
+ * @version: 1.3
+ */
+
+import java.util.Arrays;
+import java.util.NoSuchElementException;
+
+public class ConflictHistogram {
+	private int[] counts;					//individuals with each conflicts / 2
+	private long[] occupied;				//bit i is set while counts[i] > 0
+	private long[] summary;					//bit w is set while occupied[w] != 0
+	private int size;						//individuals counted
+	private int min;						//index of the fewest conflicts
+	private int max;						//index of the most conflicts
+
+	/* Instantiates an empty histogram.
+	 *
+	 * @param: conflicts expected at most, the histogram grows past it if needed
+	 */
+	public ConflictHistogram(int expectedConflicts) {
+		int length = Math.max(64, expectedConflicts / 2 + 1);
+
+		counts = new int[length];
+		occupied = new long[(length + 63) >>> 6];
+		summary = new long[(occupied.length + 63) >>> 6];
+		clear();
+	}
+
+	/* Removes all individuals.
+	 *
+	 */
+	public void clear() {
+		if(size > 0) {
+			Arrays.fill(counts, min, max + 1, 0);
+			Arrays.fill(occupied, min >>> 6, (max >>> 6) + 1, 0L);
+			Arrays.fill(summary, min >>> 12, (max >>> 12) + 1, 0L);
+		}
+		size = 0;
+		min = Integer.MAX_VALUE;
+		max = -1;
+	}
+
+	/* Counts an individual.
+	 *
+	 * @param: conflicts of the individual
+	 */
+	public void add(int conflicts) {
+		int index = conflicts >>> 1;
+
+		if(index >= counts.length) {
+			grow(index);
+		}
+		if(counts[index]++ == 0) {
+			occupied[index >>> 6] |= 1L << index;
+			summary[index >>> 12] |= 1L << (index >>> 6);
+		}
+		size++;
+		if(index < min) {
+			min = index;
+		}
+		if(index > max) {
+			max = index;
+		}
+	}
+
+	/* Removes an individual.
+	 *
+	 * @param: conflicts of the individual
+	 */
+	public void remove(int conflicts) {
+		int index = conflicts >>> 1;
+
+		if(--counts[index] == 0) {
+			occupied[index >>> 6] &= ~(1L << index);
+			if(occupied[index >>> 6] == 0) {
+				summary[index >>> 12] &= ~(1L << (index >>> 6));
+			}
+		}
+		size--;
+		if(size == 0) {
+			min = Integer.MAX_VALUE;
+			max = -1;
+		} else if(counts[index] == 0) {
+			if(index == min) {
+				min = next(index);
+			}
+			if(index == max) {
+				max = previous(index);
+			}
+		}
+	}
+
+	/* Gets the fewest conflicts counted.
+	 *
+	 * @return: fewest conflicts
+	 */
+	public int getMin() {
+		if(size == 0) {
+			throw new NoSuchElementException();
+		}
+		return min << 1;
+	}
+
+	/* Gets the most conflicts counted.
+	 *
+	 * @return: most conflicts
+	 */
+	public int getMax() {
+		if(size == 0) {
+			throw new NoSuchElementException();
+		}
+		return max << 1;
+	}
+
+	/* Gets the number of individuals counted.
+	 *
+	 * @return: individuals
+	 */
+	public int size() {
+		return size;
+	}
+
+	/* Finds the smallest occupied index above an index.
+	 *
+	 * @param: the index
+	 * @return: the occupied index
+	 */
+	private int next(int index) {
+		int word = index >>> 6;
+		long bits = occupied[word] & (-2L << (index & 63));
+		int summaryWord = 0;
+		long summaryBits = 0;
+
+		if(bits == 0) {											//look for the next non-empty word
+			word++;
+			summaryWord = word >>> 6;
+			summaryBits = summary[summaryWord] & (-1L << (word & 63));
+			while(summaryBits == 0) {
+				summaryBits = summary[++summaryWord];
+			}
+			word = (summaryWord << 6) + Long.numberOfTrailingZeros(summaryBits);
+			bits = occupied[word];
+		}
+		return (word << 6) + Long.numberOfTrailingZeros(bits);
+	}
+
+	/* Finds the largest occupied index below an index.
+	 *
+	 * @param: the index
+	 * @return: the occupied index
+	 */
+	private int previous(int index) {
+		int word = index >>> 6;
+		long bits = occupied[word] & ~(-1L << (index & 63));
+		int summaryWord = 0;
+		long summaryBits = 0;
+
+		if(bits == 0) {											//look for the previous non-empty word
+			word--;
+			summaryWord = word >>> 6;
+			summaryBits = summary[summaryWord] & (-1L >>> (63 - (word & 63)));
+			while(summaryBits == 0) {
+				summaryBits = summary[--summaryWord];
+			}
+			word = (summaryWord << 6) + 63 - Long.numberOfLeadingZeros(summaryBits);
+			bits = occupied[word];
+		}
+		return (word << 6) + 63 - Long.numberOfLeadingZeros(bits);
+	}
+
+	/* Makes room for an index, at least doubling the arrays.
+	 *
+	 * @param: the index
+	 */
+	private void grow(int index) {
+		int length = Math.max(index + 1, counts.length * 2);
+
+		counts = Arrays.copyOf(counts, length);
+		occupied = Arrays.copyOf(occupied, (length + 63) >>> 6);
+		summary = Arrays.copyOf(summary, (occupied.length + 63) >>> 6);
+	}
+}
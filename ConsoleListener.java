@@ -0,0 +1,54 @@
+/* ConsoleListener.java
+ *
+ * Prints the progress of a GA run in the console: the epochs, every solution board and a run summary.
+ *
+ * @version: 1.3
+ */
+
+public class ConsoleListener implements GAListener {
+	/* Prints the completed epoch.
+	 *
+	 * @param: epochs completed
+	 * @param: fewest conflicts in the population
+	 */
+	public void epochCompleted(int epoch, int bestConflicts) {
+		System.out.println("Epoch: " + epoch);
+	}
+
+	/* Prints the board of a solution.
+	 *
+	 * @param: current epoch
+	 * @param: a chromosome without conflicts
+	 */
+	public void solutionFound(int epoch, Chromosome solution) {
+		int n = solution.getMaxLength();
+		StringBuilder line = new StringBuilder(2 * n);
+
+		// Display the board.
+		System.out.println("Board:");
+		for(int y = 0; y < n; y++) {
+			line.setLength(0);
+			for(int x = 0; x < n; x++) {
+				line.append(solution.getGene(x) == y ? "Q " : ". ");
+			}
+			System.out.println(line);
+		}
+	}
+
+	/* Prints the summary of the run.
+	 *
+	 * @param: epochs completed
+	 * @param: true if a solution was found
+	 * @param: number of mutations
+	 * @param: number of offspring
+	 */
+	public void runFinished(int epoch, boolean solved, int mutations, int offspring) {
+		if(!solved) {
+			System.out.println("No solution found");
+		}
+		System.out.println("done.");
+
+		System.out.println("Completed " + epoch + " epochs.");
+		System.out.println("Encountered " + mutations + " mutations in " + offspring + " offspring.");
+	}
+}
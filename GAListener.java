@@ -0,0 +1,47 @@
+/* GAListener.java
+ *
+ * Receives progress events from GeneticAlgorithm.java and CompactGeneticAlgorithm.java
+ * Every event does nothing by default, so a listener only overrides the events it needs.
+ * See ConsoleListener.java for a listener printing the progress in the console.
+ *
+ * @version: 1.3
+ */
+
+public interface GAListener {
+	/* Listener used when none is set, it ignores every event. */
+	GAListener NONE = new GAListener() {};
+
+	/* Called after an epoch, every sampled epoch only.
+	 *
+	 * @param: epochs completed
+	 * @param: fewest conflicts in the population
+	 */
+	default void epochCompleted(int epoch, int bestConflicts) {
+	}
+
+	/* Called when the fewest conflicts in the population drops.
+	 *
+	 * @param: current epoch
+	 * @param: new fewest conflicts
+	 */
+	default void bestImproved(int epoch, int bestConflicts) {
+	}
+
+	/* Called for every solution found.
+	 *
+	 * @param: current epoch
+	 * @param: a chromosome without conflicts
+	 */
+	default void solutionFound(int epoch, Chromosome solution) {
+	}
+
+	/* Called when a run ends.
+	 *
+	 * @param: epochs completed
+	 * @param: true if a solution was found
+	 * @param: number of mutations
+	 * @param: number of offspring
+	 */
+	default void runFinished(int epoch, boolean solved, int mutations, int offspring) {
+	}
+}
@@ -0,0 +1,341 @@
+/* GAMetrics.java
+ *
+ * Counts and times the operators of GeneticAlgorithm.java while runs are in flight, published over JMX.
+ * Every call of an operator is counted, and about one call in SAMPLE_INTERVAL is timed with System.nanoTime,
+ * so the mean time per call and the estimated total time per operator cost little to collect.
+ * The counters are LongAdders, so the runs of TesterGA's threads or of an IslandGA can share one instance.
+ * A GA without metrics, or with metrics disabled, only checks a null field around each operator.
+ *
+ * @version: 1.3
+ */
+
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.LongAdder;
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+public class GAMetrics implements GAMetricsMBean {
+	public static final int INITIALIZE = 0;		//operator indexes
+	public static final int FITNESS = 1;
+	public static final int SELECTION = 2;
+	public static final int CHOOSE_PARENT = 3;
+	public static final int CROSSOVER = 4;
+	public static final int MUTATION = 5;
+	public static final int LOCAL_SEARCH = 6;
+	private static final String[] OPERATORS = { "initialize", "getFitness", "rouletteSelection", "chooseParent",
+			"partiallyMappedCrossover", "exchangeMutation", "localSearch" };
+	private int SAMPLE_INTERVAL;				//one call in SAMPLE_INTERVAL is timed, a power of two
+	private volatile boolean enabled;
+	private LongAdder[] calls;
+	private LongAdder[] sampledCalls;
+	private LongAdder[] sampledNanos;
+	private LongAdder epochs;
+	private LongAdder evaluations;
+	private LongAdder runs;
+	private LongAdder solvedRuns;
+	private volatile int populationSize;		//last reported by any run
+	private volatile int bestConflicts;
+	private volatile long resetTime;
+	private ObjectName name;					//registered name, null if not registered
+
+	/* Instantiates enabled metrics timing one call in 16.
+	 *
+	 */
+	public GAMetrics() {
+		SAMPLE_INTERVAL = 16;
+		enabled = true;
+		calls = adders(OPERATORS.length);
+		sampledCalls = adders(OPERATORS.length);
+		sampledNanos = adders(OPERATORS.length);
+		epochs = new LongAdder();
+		evaluations = new LongAdder();
+		runs = new LongAdder();
+		solvedRuns = new LongAdder();
+		name = null;
+		reset();
+	}
+
+	/* Creates an array of counters.
+	 *
+	 * @param: number of counters
+	 * @return: the counters
+	 */
+	private static LongAdder[] adders(int count) {
+		LongAdder[] adders = new LongAdder[count];
+
+		for(int i = 0; i < count; i++) {
+			adders[i] = new LongAdder();
+		}
+		return adders;
+	}
+
+	/* Counts a call of an operator and decides whether it is timed.
+	 *
+	 * @param: operator index
+	 * @return: start time to pass to end, 0 if the call is not timed
+	 */
+	public long begin(int operator) {
+		calls[operator].increment();
+		if((ThreadLocalRandom.current().nextInt() & (SAMPLE_INTERVAL - 1)) != 0) {
+			return 0;
+		}
+		return System.nanoTime();
+	}
+
+	/* Ends a call of an operator.
+	 *
+	 * @param: operator index
+	 * @param: start time returned by begin
+	 */
+	public void end(int operator, long start) {
+		if(start != 0) {
+			sampledNanos[operator].add(System.nanoTime() - start);
+			sampledCalls[operator].increment();
+		}
+	}
+
+	/* Records a completed epoch.
+	 *
+	 * @param: population size
+	 * @param: fewest conflicts in the population
+	 * @param: chromosomes evaluated since the last report
+	 */
+	public void epochCompleted(int population, int best, int evaluated) {
+		epochs.increment();
+		evaluations.add(evaluated);
+		populationSize = population;
+		bestConflicts = best;
+	}
+
+	/* Records a finished run.
+	 *
+	 * @param: chromosomes evaluated since the last report
+	 * @param: true if a solution was found
+	 */
+	public void runFinished(int evaluated, boolean solved) {
+		evaluations.add(evaluated);
+		runs.increment();
+		if(solved) {
+			solvedRuns.increment();
+		}
+	}
+
+	/* Publishes the metrics on the platform MBean server as GeneticAlgorithm:type=GAMetrics,name=<name>.
+	 * Metrics already registered under the name are replaced.
+	 *
+	 * @param: name of the metrics
+	 * @return: true if registered
+	 */
+	public boolean register(String metricsName) {
+		MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+
+		try {
+			unregister();
+			name = new ObjectName("GeneticAlgorithm:type=GAMetrics,name=" + ObjectName.quote(metricsName));
+			if(server.isRegistered(name)) {
+				server.unregisterMBean(name);
+			}
+			server.registerMBean(this, name);
+			return true;
+		} catch (JMException e) {
+			System.out.println("Metrics not registered: " + e.getMessage());
+			name = null;
+			return false;
+		}
+	}
+
+	/* Removes the metrics from the platform MBean server.
+	 *
+	 */
+	public void unregister() {
+		if(name == null) {
+			return;
+		}
+		try {
+			ManagementFactory.getPlatformMBeanServer().unregisterMBean(name);
+		} catch (JMException e) {
+			System.out.println("Metrics not unregistered: " + e.getMessage());
+		}
+		name = null;
+	}
+
+	/* Gets whether the operators are being counted and timed.
+	 *
+	 * @return: true if enabled
+	 */
+	public boolean isEnabled() {
+		return enabled;
+	}
+
+	/* Turns the counting and timing on or off. Runs pick it up at their next epoch.
+	 *
+	 * @param: true to enable
+	 */
+	public void setEnabled(boolean enabled) {
+		this.enabled = enabled;
+	}
+
+	/* Gets the names of the operators.
+	 *
+	 * @return: operator names, indexed like the operator constants
+	 */
+	public String[] getOperators() {
+		return OPERATORS.clone();
+	}
+
+	/* Gets the number of calls of each operator.
+	 *
+	 * @return: calls per operator
+	 */
+	public long[] getCalls() {
+		long[] values = new long[OPERATORS.length];
+
+		for(int i = 0; i < values.length; i++) {
+			values[i] = calls[i].sum();
+		}
+		return values;
+	}
+
+	/* Gets the mean time of a call of each operator from the timed calls.
+	 *
+	 * @return: mean nanoseconds per operator
+	 */
+	public double[] getMeanNanos() {
+		double[] values = new double[OPERATORS.length];
+		long sampled = 0;
+
+		for(int i = 0; i < values.length; i++) {
+			sampled = sampledCalls[i].sum();
+			values[i] = sampled == 0 ? 0.0 : (double)sampledNanos[i].sum() / sampled;
+		}
+		return values;
+	}
+
+	/* Gets the estimated time spent in each operator, the mean time times the calls.
+	 *
+	 * @return: estimated nanoseconds per operator
+	 */
+	public long[] getTotalNanos() {
+		long[] values = new long[OPERATORS.length];
+		long[] counted = getCalls();
+		double[] mean = getMeanNanos();
+
+		for(int i = 0; i < values.length; i++) {
+			values[i] = Math.round(mean[i] * counted[i]);
+		}
+		return values;
+	}
+
+	/* Gets the epochs completed by all runs.
+	 *
+	 * @return: epochs
+	 */
+	public long getEpochs() {
+		return epochs.sum();
+	}
+
+	/* Gets the chromosomes evaluated by all runs.
+	 *
+	 * @return: evaluations
+	 */
+	public long getEvaluations() {
+		return evaluations.sum();
+	}
+
+	/* Gets the chromosomes evaluated per second since the last reset.
+	 *
+	 * @return: evaluations per second
+	 */
+	public double getEvaluationsPerSecond() {
+		long elapsed = System.nanoTime() - resetTime;
+
+		return elapsed <= 0 ? 0.0 : evaluations.sum() * 1e9 / elapsed;
+	}
+
+	/* Gets the population size at the last epoch of any run.
+	 *
+	 * @return: population size
+	 */
+	public int getPopulationSize() {
+		return populationSize;
+	}
+
+	/* Gets the fewest conflicts at the last epoch of any run.
+	 *
+	 * @return: fewest conflicts, -1 before the first epoch
+	 */
+	public int getBestConflicts() {
+		return bestConflicts;
+	}
+
+	/* Gets the runs finished.
+	 *
+	 * @return: runs finished
+	 */
+	public long getRuns() {
+		return runs.sum();
+	}
+
+	/* Gets the runs which found a solution.
+	 *
+	 * @return: runs solved
+	 */
+	public long getSolvedRuns() {
+		return solvedRuns.sum();
+	}
+
+	/* Formats a table of the operators followed by the run counters.
+	 *
+	 * @return: the summary
+	 */
+	public String getSummary() {
+		StringBuilder sb = new StringBuilder();
+		long[] counted = getCalls();
+		double[] mean = getMeanNanos();
+		long[] total = getTotalNanos();
+
+		sb.append(String.format("%-26s %14s %14s %16s%n", "operator", "calls", "mean ns", "total ns"));
+		for(int i = 0; i < OPERATORS.length; i++) {
+			sb.append(String.format("%-26s %14d %14.1f %16d%n", OPERATORS[i], counted[i], mean[i], total[i]));
+		}
+		sb.append("epochs: " + getEpochs() + ", runs: " + getRuns() + ", solved: " + getSolvedRuns());
+		sb.append(", evaluations: " + getEvaluations() + String.format(", evaluations/s: %.0f", getEvaluationsPerSecond()));
+		return sb.toString();
+	}
+
+	/* Clears the counters and restarts the evaluation rate.
+	 *
+	 */
+	public void reset() {
+		for(int i = 0; i < OPERATORS.length; i++) {
+			calls[i].reset();
+			sampledCalls[i].reset();
+			sampledNanos[i].reset();
+		}
+		epochs.reset();
+		evaluations.reset();
+		runs.reset();
+		solvedRuns.reset();
+		populationSize = 0;
+		bestConflicts = -1;
+		resetTime = System.nanoTime();
+	}
+
+	/* Sets how often a call is timed.
+	 *
+	 * @param: calls per timed call, rounded up to a power of two, 1 times every call
+	 */
+	public void setSampleInterval(int interval) {
+		SAMPLE_INTERVAL = Integer.highestOneBit(Math.max(1, interval) * 2 - 1);
+	}
+
+	/* Gets how often a call is timed.
+	 *
+	 * @return: calls per timed call
+	 */
+	public int getSampleInterval() {
+		return SAMPLE_INTERVAL;
+	}
+}
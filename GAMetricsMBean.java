@@ -0,0 +1,98 @@
+/* GAMetricsMBean.java
+ *
+ * Management interface of GAMetrics.java, the attributes and operations shown in JConsole or VisualVM
+ * under GeneticAlgorithm > GAMetrics.
+ *
+ * @version: 1.3
+ */
+
+public interface GAMetricsMBean {
+	/* Gets whether the operators are being counted and timed.
+	 *
+	 * @return: true if enabled
+	 */
+	boolean isEnabled();
+
+	/* Turns the counting and timing on or off, from the next epoch of every run.
+	 *
+	 * @param: true to enable
+	 */
+	void setEnabled(boolean enabled);
+
+	/* Gets the names of the operators, in the order of the operator attributes.
+	 *
+	 * @return: operator names
+	 */
+	String[] getOperators();
+
+	/* Gets the number of calls of each operator.
+	 *
+	 * @return: calls per operator
+	 */
+	long[] getCalls();
+
+	/* Gets the mean time of a call of each operator, from the sampled calls.
+	 *
+	 * @return: mean nanoseconds per operator
+	 */
+	double[] getMeanNanos();
+
+	/* Gets the estimated total time spent in each operator, the mean time scaled to all calls.
+	 *
+	 * @return: estimated nanoseconds per operator
+	 */
+	long[] getTotalNanos();
+
+	/* Gets the epochs completed by all runs.
+	 *
+	 * @return: epochs
+	 */
+	long getEpochs();
+
+	/* Gets the chromosomes evaluated by all runs.
+	 *
+	 * @return: evaluations
+	 */
+	long getEvaluations();
+
+	/* Gets the chromosomes evaluated per second since the metrics were reset.
+	 *
+	 * @return: evaluations per second
+	 */
+	double getEvaluationsPerSecond();
+
+	/* Gets the population size at the last completed epoch.
+	 *
+	 * @return: population size
+	 */
+	int getPopulationSize();
+
+	/* Gets the fewest conflicts at the last completed epoch.
+	 *
+	 * @return: fewest conflicts, -1 before the first epoch
+	 */
+	int getBestConflicts();
+
+	/* Gets the runs finished.
+	 *
+	 * @return: runs finished
+	 */
+	long getRuns();
+
+	/* Gets the runs which found a solution.
+	 *
+	 * @return: runs solved
+	 */
+	long getSolvedRuns();
+
+	/* Gets a readable table of the operators and counters.
+	 *
+	 * @return: the summary
+	 */
+	String getSummary();
+
+	/* Clears the counters and restarts the evaluation rate.
+	 *
+	 */
+	void reset();
+}
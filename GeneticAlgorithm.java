@@ -8,9 +8,14 @@
  * @version: 1.3
  */
 
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.IntBuffer;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
-import java.util.Random;
+import java.util.Arrays;
 import java.util.Collections;
+import java.util.HashSet;
 
 public class GeneticAlgorithm {
 	/*GA PARAMETERS*/
@@ -24,15 +29,56 @@ public class GeneticAlgorithm {
 	private int OFFSPRING_PER_GENERATION;   // New offspring created per generation. Range: 0 < OFFSPRING_PER_GENERATION < MAX_SELECT.
 	private int MINIMUM_SHUFFLES;           // For randomizing starting chromosomes
 	private int MAXIMUM_SHUFFLES;
+	private int MAX_POPULATION;             // Population capacity for steady-state runs. 0 lets the population grow every epoch.
+	private Replacement REPLACEMENT;        // Which individual an offspring replaces once MAX_POPULATION is reached.
+	private int TOURNAMENT_SIZE;            // Individuals drawn when replacing the loser of a tournament.
+	private int LOCAL_SEARCH_MOVES;         // Min-conflicts moves applied to each offspring. 0 turns the local search off.
+	private int LOCAL_SEARCH_SAMPLE;        // Exchange partners tried for a conflicted queen in each move.
+	private int SOLUTION_TARGET;            // Distinct solutions to find before the run stops.
 
-	private int nextMutation;               // For scheduling mutations.
+	/* Policies for choosing the individual an offspring replaces in a full population.
+	 * WORST replaces the most conflicted, TOURNAMENT the most conflicted of a random sample, AGE the oldest.
+	 */
+	public enum Replacement { WORST, TOURNAMENT, AGE }
+
+	private int nextMutation;               // Offspring number of the next mutation.
+	private double mutationRate;            // Mutation rate, mating probability and selection pressure of the current epoch,
+	private double matingProbability;       // set by the adaptive controller or fixed to the parameters.
+	private double selectionPressure;
+	private AdaptiveController controller;  // Adapts the rates to the population, null for fixed rates.
+	private int DIVERSITY_SAMPLES;          // Chromosome pairs compared to estimate the diversity.
+	private String checkpointFile;          // Snapshot of the run, null for no snapshots.
+	private int CHECKPOINT_INTERVAL;        // Epochs between snapshots.
+	private GAMetrics metrics;              // Counts and times the operators, null for none.
+	private GAMetrics timing;               // The metrics while they are enabled, checked every epoch. Null skips the instrumentation.
+	private int reportedBirths;             // Births already reported to the metrics.
+	private volatile boolean cancelled;     // Set from another thread to end the run at the next epoch.
 	private ArrayList<Chromosome> population;
+	private ArrayDeque<Chromosome> pool;    // Discarded chromosomes reused for offspring.
 	private ArrayList<Chromosome> solutions;
-	private Random rand;
+	private HashSet<IntBuffer> solutionGenes; // Genes of the solutions found, IntBuffer compares its contents.
+	private RandomSource rand;              // Random numbers of the current run.
+	private RandomSource seedSource;        // Generator each run splits its random numbers from.
 	private int childCount;
 	private int mutations;
 	private int epoch;
 	private int populationSize;
+	private int births;                     // Birth order handed to the next chromosome.
+	private int epochBirths;                // Birth order of the first offspring of the current epoch.
+	private int bestConflicts;              // Fewest conflicts reached in this run.
+	private GAListener listener;            // Receives the progress of the run.
+	private int LISTENER_SAMPLE;            // Epochs between epoch events.
+	private int[] position1;                // Crossover scratch: position of each item in the first child.
+	private int[] position2;                // Crossover scratch: position of each item in the second child.
+	private RouletteWheel wheel;            // Selection wheel, rebuilt every epoch.
+	private int[] selectedParents;          // Population indexes of the parents selected in this epoch.
+	private int selectedCount;
+	private ConflictHistogram conflictCounts; // Number of individuals with each conflicts value, for the best and worst in the population.
+	private int[] dirty;                    // Population indexes whose conflicts changed since fitness was last set, each listed once.
+	private boolean[] isDirty;              // Whether each population index is listed in dirty.
+	private int dirtyCount;
+	private int scoredBest;                 // Fewest and most conflicts the fitness was last scaled to.
+	private int scoredWorst;
 
 	/* Instantiates the genetic algorithm along with its parameters.
 	 *
@@ -49,6 +95,30 @@ public class GeneticAlgorithm {
 		OFFSPRING_PER_GENERATION = 20;
 		MINIMUM_SHUFFLES = 8; 
 		MAXIMUM_SHUFFLES = 20;  
+		MAX_POPULATION = 0;
+		REPLACEMENT = Replacement.WORST;
+		TOURNAMENT_SIZE = 3;
+		LOCAL_SEARCH_MOVES = 0;
+		LOCAL_SEARCH_SAMPLE = 8;
+		SOLUTION_TARGET = 1;
+		position1 = new int[MAX_LENGTH];
+		position2 = new int[MAX_LENGTH];
+		wheel = new RouletteWheel(START_SIZE);
+		population = new ArrayList<Chromosome>();
+		conflictCounts = new ConflictHistogram(2 * MAX_LENGTH);
+		dirty = new int[START_SIZE];
+		isDirty = new boolean[START_SIZE];
+		pool = new ArrayDeque<Chromosome>();
+		seedSource = new SplitMix64();
+		listener = GAListener.NONE;
+		LISTENER_SAMPLE = 1;
+		controller = null;
+		DIVERSITY_SAMPLES = 8;
+		checkpointFile = null;
+		CHECKPOINT_INTERVAL = 0;
+		metrics = null;
+		timing = null;
+		cancelled = false;
 		epoch = 0;
 		populationSize = 0;
 	}
@@ -57,117 +127,715 @@ public class GeneticAlgorithm {
 	 *
 	 */
 	public boolean algorithm() {
-		population = new ArrayList<Chromosome>();
+		start();
+
+		return evolve();
+	}
+
+	/* Continues a run restored by Checkpoint.load.
+	 *
+	 * @return: true if a solution was found
+	 */
+	public boolean resume() {
+		return evolve();
+	}
+
+	/* Evolves the population until the run is done, taking snapshots if a checkpoint file is set.
+	 *
+	 * @return: true if a solution was found
+	 */
+	private boolean evolve() {
+		boolean done = false;
+		Checkpoint checkpoint = null;
+
+		if(checkpointFile != null && canWriteState()) {
+			checkpoint = new Checkpoint(checkpointFile);
+		} else if(checkpointFile != null) {								//the run goes on without snapshots
+			System.out.println("Only SplitMix64 random numbers can be saved, no snapshots of " + checkpointFile);
+		}
+
+		try {
+			while(!done) {
+				done = nextEpoch() || cancelled;
+				if(!done && checkpoint != null && epoch % CHECKPOINT_INTERVAL == 0) {
+					checkpoint.save(this);								//written by the checkpoint thread
+				}
+			}
+		} catch (IOException e) {
+			System.out.println(e.getMessage());
+			checkpoint = null;
+			while(!done) {												//the run goes on without snapshots
+				done = nextEpoch() || cancelled;
+			}
+		} finally {
+			if(checkpoint != null) {
+				try {
+					checkpoint.close();
+				} catch (IOException e) {
+					System.out.println(e.getMessage());
+				}
+			}
+		}
+
+		return finish();
+	}
+
+	/* Ends the run at its next epoch, the run then finishes with the solutions found so far.
+	 * Safe to call from another thread. A cancelled GA stays cancelled, later runs stop after their first epoch.
+	 *
+	 */
+	public void cancel() {
+		cancelled = true;
+	}
+
+	/* Resets the run and creates the starting population.
+	 *
+	 */
+	public void start() {
+		pool.addAll(population);						//the previous run's chromosomes are reused
+		population.clear();
+		conflictCounts.clear();
+		clearDirty();
+		scoredBest = -1;
+		scoredWorst = -1;
 		solutions = new ArrayList<Chromosome>();
-		rand = new Random();
+		solutionGenes = new HashSet<IntBuffer>();
+		rand = seedSource.split();
 		nextMutation = 0;
 		childCount = 0;                 
 		mutations = 0;
 		epoch = 0;
 		populationSize = 0;
+		births = 0;
+		epochBirths = 0;
+		bestConflicts = Integer.MAX_VALUE;
+		selectedParents = new int[Math.max(MAX_SELECT, 2)];
+		selectedCount = 0;
 
-		boolean done = false;
-		Chromosome thisChromo = null;
-		nextMutation = getRandomNumber(0, (int)Math.round(1.0 / MUTATION_RATE));
+		mutationRate = MUTATION_RATE;
+		matingProbability = MATING_PROBABILITY;
+		selectionPressure = 1.0;
+		if(controller != null) {
+			controller.reset(MUTATION_RATE, MATING_PROBABILITY);
+		}
+		scheduleMutation(0);
 
+		timing = metrics != null && metrics.isEnabled() ? metrics : null;
+		reportedBirths = 0;
+		long start = timing == null ? 0 : timing.begin(GAMetrics.INITIALIZE);
 		initialize();
+		if(timing != null) {
+			timing.end(GAMetrics.INITIALIZE, start);
+		}
+	}
 
-		while(!done) {
-			populationSize = population.size();
+	/* Gets the bytes writeState needs.
+	 *
+	 * @return: size of the state
+	 */
+	int stateSize() {
+		int size = 0;
 
-			for(int i = 0; i < populationSize; i++) {
-				thisChromo = population.get(i);
-				if((thisChromo.getConflicts() == 0)) {			//if solution found
-					done = true;
-				}
+		size += 21 * 4 + 5 * 8;											//parameters and counters
+		size += 4 * 8 + 1;												//random numbers and controller flag
+		size += controller == null ? 0 : controller.stateSize();
+		size += 4 + solutions.size() * MAX_LENGTH * 4;
+		size += 4 + population.size() * (8 + MAX_LENGTH * 4);
+		return size;
+	}
+
+	/* Checks whether the state of the run can be written, only SplitMix64 random numbers can be saved.
+	 *
+	 * @return: true if writeState can be called
+	 */
+	boolean canWriteState() {
+		return rand instanceof SplitMix64 && seedSource instanceof SplitMix64;
+	}
+
+	/* Writes the state of the run into a checkpoint. Called between two epochs.
+	 *
+	 * @param: buffer with room for stateSize() bytes
+	 */
+	void writeState(ByteBuffer buffer) {
+		if(!canWriteState()) {
+			throw new IllegalStateException("Only SplitMix64 random numbers can be saved");
+		}
+
+		buffer.putInt(MAX_LENGTH).putInt(START_SIZE).putInt(MAX_EPOCHS);
+		buffer.putDouble(MATING_PROBABILITY).putDouble(MUTATION_RATE);
+		buffer.putInt(MIN_SELECT).putInt(MAX_SELECT).putInt(OFFSPRING_PER_GENERATION);
+		buffer.putInt(MINIMUM_SHUFFLES).putInt(MAXIMUM_SHUFFLES);
+		buffer.putInt(MAX_POPULATION).putInt(REPLACEMENT.ordinal()).putInt(TOURNAMENT_SIZE);
+		buffer.putInt(LOCAL_SEARCH_MOVES).putInt(LOCAL_SEARCH_SAMPLE).putInt(SOLUTION_TARGET);
+		buffer.putInt(checkpointFile == null ? 0 : CHECKPOINT_INTERVAL);
+
+		buffer.putInt(epoch).putInt(childCount).putInt(mutations).putInt(births).putInt(nextMutation).putInt(bestConflicts);
+		buffer.putDouble(mutationRate).putDouble(matingProbability).putDouble(selectionPressure);
+
+		buffer.putLong(((SplitMix64)rand).getSeed()).putLong(((SplitMix64)rand).getGamma());
+		buffer.putLong(((SplitMix64)seedSource).getSeed()).putLong(((SplitMix64)seedSource).getGamma());
+		buffer.put((byte)(controller == null ? 0 : 1));
+		if(controller != null) {
+			controller.writeState(buffer);
+		}
+
+		buffer.putInt(solutions.size());
+		for(Chromosome c: solutions) {
+			for(int i = 0; i < MAX_LENGTH; i++) {
+				buffer.putInt(c.getGene(i));
 			}
+		}
 
-			if(epoch == MAX_EPOCHS) {							//if Max Number of Cycles 
-				done = true;
+		buffer.putInt(population.size());
+		for(Chromosome c: population) {
+			buffer.putInt(c.getBirth()).putInt(c.getConflicts());
+			for(int i = 0; i < MAX_LENGTH; i++) {
+				buffer.putInt(c.getGene(i));
 			}
+		}
+	}
 
-			getFitness();
+	/* Restores the state of a run from a checkpoint, replacing the current run.
+	 *
+	 * @param: buffer positioned at the state
+	 */
+	void readState(ByteBuffer buffer) throws IOException {
+		int[] genes = new int[MAX_LENGTH];
+		int count = 0;
+		int birth = 0;
+		int conflicts = 0;
+		Chromosome c = null;
 
-			rouletteSelection();
+		if(buffer.getInt() != MAX_LENGTH) {
+			throw new IOException("Checkpoint of another board size");
+		}
+		START_SIZE = buffer.getInt();
+		MAX_EPOCHS = buffer.getInt();
+		MATING_PROBABILITY = buffer.getDouble();
+		MUTATION_RATE = buffer.getDouble();
+		MIN_SELECT = buffer.getInt();
+		MAX_SELECT = buffer.getInt();
+		OFFSPRING_PER_GENERATION = buffer.getInt();
+		MINIMUM_SHUFFLES = buffer.getInt();
+		MAXIMUM_SHUFFLES = buffer.getInt();
+		MAX_POPULATION = buffer.getInt();
+		REPLACEMENT = Replacement.values()[buffer.getInt()];
+		TOURNAMENT_SIZE = buffer.getInt();
+		LOCAL_SEARCH_MOVES = buffer.getInt();
+		LOCAL_SEARCH_SAMPLE = buffer.getInt();
+		SOLUTION_TARGET = buffer.getInt();
+		CHECKPOINT_INTERVAL = buffer.getInt();							//the file is set by Checkpoint.load
+		if(CHECKPOINT_INTERVAL == 0) {
+			checkpointFile = null;
+		}
 
-			mating();
+		pool.addAll(population);
+		population.clear();
+		conflictCounts.clear();
+		clearDirty();
+		scoredBest = -1;												//everyone is scored in the next epoch
+		scoredWorst = -1;
+		solutions = new ArrayList<Chromosome>();
+		solutionGenes = new HashSet<IntBuffer>();
+		selectedParents = new int[Math.max(MAX_SELECT, 2)];
+		selectedCount = 0;
 
-			prepNextEpoch();
+		epoch = buffer.getInt();
+		childCount = buffer.getInt();
+		mutations = buffer.getInt();
+		births = buffer.getInt();
+		nextMutation = buffer.getInt();
+		bestConflicts = buffer.getInt();
+		epochBirths = births;
+		reportedBirths = births;
+		mutationRate = buffer.getDouble();
+		matingProbability = buffer.getDouble();
+		selectionPressure = buffer.getDouble();
 
-			epoch++;
-			System.out.println("Epoch: " + epoch);
+		rand = new SplitMix64(buffer.getLong(), buffer.getLong());
+		seedSource = new SplitMix64(buffer.getLong(), buffer.getLong());
+		controller = null;
+		if(buffer.get() != 0) {
+			controller = new AdaptiveController();
+			controller.readState(buffer);
 		}
 
-		if(epoch >= MAX_EPOCHS) {
-			System.out.println("No solution found");
-			done = false;
-		} else {
-			populationSize = population.size();					//prints the solutions if found within mnc
-			for(int i = 0; i < populationSize; i++) {
-				thisChromo = population.get(i);
-				if(thisChromo.getConflicts() == 0) {
-					solutions.add(thisChromo);
-					printSolution(thisChromo);
-				}
+		count = buffer.getInt();
+		for(int s = 0; s < count; s++) {
+			for(int i = 0; i < MAX_LENGTH; i++) {
+				genes[i] = buffer.getInt();
 			}
+			c = new Chromosome(MAX_LENGTH, false);
+			c.setGenes(genes);
+			solutionGenes.add(IntBuffer.wrap(genes.clone()));
+			solutions.add(c);
+		}
+
+		count = buffer.getInt();
+		for(int p = 0; p < count; p++) {
+			birth = buffer.getInt();
+			conflicts = buffer.getInt();
+			for(int i = 0; i < MAX_LENGTH; i++) {
+				genes[i] = buffer.getInt();
+			}
+			c = newChromosome();
+			c.setGenes(genes);
+			if(c.getConflicts() != conflicts) {
+				throw new IOException("Checkpoint is corrupt");
+			}
+			c.setBirth(birth);
+			population.add(c);
+			addConflicts(conflicts);
+		}
+		populationSize = population.size();
+	}
+
+	/* Evolves the population by one epoch.
+	 * The epoch ends early once enough solutions are found, solutions are detected as soon as they are bred.
+	 *
+	 * @return: true if enough solutions were found or the max epoch was reached
+	 */
+	public boolean nextEpoch() {
+		boolean done = false;
+		int best = getBestConflicts();
+		long start = 0;
+
+		populationSize = population.size();
+		timing = metrics != null && metrics.isEnabled() ? metrics : null;
+
+		updateBest(best);
+
+		if(isSolved()) {									//found while initializing or immigrating
+			return true;
+		}
+
+		if(epoch == MAX_EPOCHS) {							//if Max Number of Cycles 
+			done = true;
+		}
+
+		if(controller != null) {
+			controller.update(best, getDiversity());
+			mutationRate = controller.getMutationRate();
+			matingProbability = controller.getMatingProbability();
+			selectionPressure = controller.getSelectionPressure();
+			scheduleMutation(childCount);					//the skipped offspring are memoryless, so redraw them at the new rate
+		}
+
+		start = timing == null ? 0 : timing.begin(GAMetrics.FITNESS);
+		getFitness();
+		if(timing != null) {
+			timing.end(GAMetrics.FITNESS, start);
+		}
+
+		start = timing == null ? 0 : timing.begin(GAMetrics.SELECTION);
+		rouletteSelection();
+		if(timing != null) {
+			timing.end(GAMetrics.SELECTION, start);
+		}
+
+		mating();
+
+		prepNextEpoch();
+
+		if(timing != null) {
+			timing.epochCompleted(population.size(), getBestConflicts(), births - reportedBirths);
+		}
+		reportedBirths = births;
+
+		if(isSolved()) {									//the epoch a solution was bred in is its epoch
+			updateBest(0);
+			return true;
+		}
+
+		epoch++;
+		if(epoch % LISTENER_SAMPLE == 0) {
+			listener.epochCompleted(epoch, best);
 		}
-		System.out.println("done.");
 
-		System.out.println("Completed " + epoch + " epochs.");
-		System.out.println("Encountered " + mutations + " mutations in " + childCount + " offspring."); 
-		
 		return done;
 	}
 
+	/* Ends the run. The solutions were collected when they were found.
+	 *
+	 * @return: true if a solution was found
+	 */
+	public boolean finish() {
+		populationSize = population.size();
+		listener.runFinished(epoch, !solutions.isEmpty(), mutations, childCount);
+		if(timing != null) {
+			timing.runFinished(births - reportedBirths, !solutions.isEmpty());
+		}
+		reportedBirths = births;
+		
+		return !solutions.isEmpty();
+	}
+
+	/* Reports a new fewest number of conflicts to the listener.
+	 *
+	 * @param: fewest conflicts in the population
+	 */
+	private void updateBest(int best) {
+		if(best < bestConflicts) {
+			bestConflicts = best;
+			listener.bestImproved(epoch, bestConflicts);
+		}
+	}
+
+	/* Collects a chromosome without conflicts unless the same solution was already found in this run.
+	 *
+	 * @param: a chromosome without conflicts
+	 */
+	private void addSolution(Chromosome c) {
+		int[] genes = new int[MAX_LENGTH];
+
+		for(int i = 0; i < MAX_LENGTH; i++) {
+			genes[i] = c.getGene(i);
+		}
+		if(solutionGenes.add(IntBuffer.wrap(genes))) {
+			solutions.add(new Chromosome(c));				//the population is recycled by the next run
+			listener.solutionFound(epoch, c);
+		}
+	}
+
+	/* Checks whether the run found the distinct solutions it looks for.
+	 *
+	 * @return: true if the solution target is reached
+	 */
+	public boolean isSolved() {
+		return solutions.size() >= SOLUTION_TARGET;
+	}
+
+	/* Copies the fittest chromosomes of the population, used for migrating between islands.
+	 *
+	 * @param: number of chromosomes to copy
+	 * @return: copies of the chromosomes with the fewest conflicts
+	 */
+	public ArrayList<Chromosome> getFittest(int count) {
+		ArrayList<Chromosome> sorted = new ArrayList<Chromosome>(population);
+		ArrayList<Chromosome> fittest = new ArrayList<Chromosome>();
+
+		Collections.sort(sorted);
+		for(int i = 0; i < count && i < sorted.size(); i++) {
+			fittest.add(new Chromosome(sorted.get(i)));
+		}
+		return fittest;
+	}
+
+	/* Replaces the chromosomes with the most conflicts by migrants from another island.
+	 *
+	 * @param: migrating chromosomes
+	 */
+	public void immigrate(ArrayList<Chromosome> migrants) {
+		int worst = 0;
+
+		for(Chromosome migrant: migrants) {
+			worst = 0;
+			for(int i = 1; i < population.size(); i++) {
+				if(population.get(i).getConflicts() > population.get(worst).getConflicts()) {
+					worst = i;
+				}
+			}
+			migrant.setBirth(births++);
+			removeConflicts(population.get(worst).getConflicts());
+			pool.add(population.set(worst, migrant));
+			track(worst);
+		}
+	}
+
+	/* Gets the fewest conflicts in the population.
+	 *
+	 * @return: conflicts of the fittest chromosome
+	 */
+	public int getBestConflicts() {
+		return conflictCounts.getMin();
+	}
+
+	/* Gets the most conflicts in the population.
+	 *
+	 * @return: conflicts of the least fit chromosome
+	 */
+	public int getWorstConflicts() {
+		return conflictCounts.getMax();
+	}
+
+	/* Counts a chromosome that entered the population and marks it for scoring.
+	 *
+	 * @param: index of the chromosome
+	 */
+	private void track(int index) {
+		Chromosome c = population.get(index);
+
+		addConflicts(c.getConflicts());
+		markDirty(index);
+		if(c.getConflicts() == 0) {
+			addSolution(c);
+		}
+	}
+
+	/* Updates the conflict counts after the genes of a chromosome changed and marks it for scoring.
+	 *
+	 * @param: index of the chromosome
+	 * @param: conflicts of the chromosome before the change
+	 */
+	private void conflictsChanged(int index, int oldConflicts) {
+		Chromosome c = population.get(index);
+		int conflicts = c.getConflicts();
+
+		if(conflicts != oldConflicts) {
+			removeConflicts(oldConflicts);
+			addConflicts(conflicts);
+		}
+		markDirty(index);
+		if(conflicts == 0) {
+			addSolution(c);
+		}
+	}
+
+	/* Adds an individual to the conflict counts.
+	 *
+	 * @param: conflicts of the individual
+	 */
+	private void addConflicts(int conflicts) {
+		conflictCounts.add(conflicts);
+	}
+
+	/* Removes an individual from the conflict counts.
+	 *
+	 * @param: conflicts of the individual
+	 */
+	private void removeConflicts(int conflicts) {
+		conflictCounts.remove(conflicts);
+	}
+
+	/* Lists a chromosome whose fitness has to be set again. An index is listed once,
+	 * so the list never holds more entries than the population, however long fitness is not set.
+	 *
+	 * @param: index of the chromosome
+	 */
+	private void markDirty(int index) {
+		if(index >= isDirty.length) {								//the population outgrew the flags
+			isDirty = Arrays.copyOf(isDirty, Math.max(index + 1, isDirty.length * 2));
+			dirty = Arrays.copyOf(dirty, isDirty.length);
+		}
+		if(!isDirty[index]) {
+			isDirty[index] = true;
+			dirty[dirtyCount++] = index;
+		}
+	}
+
+	/* Empties the list of chromosomes whose fitness has to be set again.
+	 *
+	 */
+	private void clearDirty() {
+		for(int i = 0; i < dirtyCount; i++) {
+			isDirty[dirty[i]] = false;
+		}
+		dirtyCount = 0;
+	}
+
 	/* Starts the mating process with the selected chromosomes.
 	 *
 	 */
 	public void mating() {
-		int getRand = 0;
         int parentA = 0;
         int parentB = 0;
         int newIndex1 = 0;
         int newIndex2 = 0;
-        Chromosome newChromo1 = null;
-        Chromosome newChromo2 = null;
+        long start = 0;
 
-        for(int i = 0; i < OFFSPRING_PER_GENERATION; i++) {
+        epochBirths = births;
+        for(int i = 0; i < OFFSPRING_PER_GENERATION && selectedCount > 0 && !isSolved(); i++) {
+            start = timing == null ? 0 : timing.begin(GAMetrics.CHOOSE_PARENT);
             parentA = chooseParent();
+            if(timing != null) {
+                timing.end(GAMetrics.CHOOSE_PARENT, start);
+            }
             // Test probability of mating.
-            getRand = getRandomNumber(0, 100);
-            if(getRand <= MATING_PROBABILITY * 100) {
+            if(rand.nextDouble() < matingProbability) {
+                start = timing == null ? 0 : timing.begin(GAMetrics.CHOOSE_PARENT);
                 parentB = chooseParent(parentA);
-                newChromo1 = new Chromosome(MAX_LENGTH);
-                newChromo2 = new Chromosome(MAX_LENGTH);
-                population.add(newChromo1);
-                newIndex1 = population.indexOf(newChromo1);
-                population.add(newChromo2);
-                newIndex2 = population.indexOf(newChromo2);
+                if(timing != null) {
+                    timing.end(GAMetrics.CHOOSE_PARENT, start);
+                }
+                newIndex1 = addOffspring();
+                newIndex2 = addOffspring();
                 
                 // partiallyMappedCrossover
+                start = timing == null ? 0 : timing.begin(GAMetrics.CROSSOVER);
                 partiallyMappedCrossover(parentA, parentB, newIndex1, newIndex2);
+                if(timing != null) {
+                    timing.end(GAMetrics.CROSSOVER, start);
+                }
 
-                if(childCount - 1 == nextMutation) {
+                if(childCount == nextMutation) {
+                    start = timing == null ? 0 : timing.begin(GAMetrics.MUTATION);
                     exchangeMutation(newIndex1, 1);
-                } else if (childCount == nextMutation) {
+                    scheduleMutation(childCount + 1);
+                    if(timing != null) {
+                        timing.end(GAMetrics.MUTATION, start);
+                    }
+                }
+                if(childCount + 1 == nextMutation) {
+                    start = timing == null ? 0 : timing.begin(GAMetrics.MUTATION);
                     exchangeMutation(newIndex2, 1);
+                    scheduleMutation(childCount + 2);
+                    if(timing != null) {
+                        timing.end(GAMetrics.MUTATION, start);
+                    }
                 }
 
-                population.get(newIndex1).computeConflicts();
-                population.get(newIndex2).computeConflicts();
+                if(LOCAL_SEARCH_MOVES > 0) {
+                    start = timing == null ? 0 : timing.begin(GAMetrics.LOCAL_SEARCH);
+                    localSearch(newIndex1, LOCAL_SEARCH_MOVES);
+                    localSearch(newIndex2, LOCAL_SEARCH_MOVES);
+                    if(timing != null) {
+                        timing.end(GAMetrics.LOCAL_SEARCH, start);
+                    }
+                }
 
                 childCount += 2;
-
-                // Schedule next mutation.
-                if(childCount % (int)Math.round(1.0 / MUTATION_RATE) == 0) {
-                    nextMutation = childCount + getRandomNumber(0, (int)Math.round(1.0 / MUTATION_RATE));
-                    //System.out.println("HYE   "+nextMutation);
-                }
             }
         } // i
 	}
 
-	/* Crossovers two chromosome parents. Uses partiallyMappedCrossover technique.
+	/* Schedules the next mutated offspring. Every offspring is mutated with probability mutationRate,
+	 * so the number of offspring skipped follows a geometric distribution and is drawn at once.
+	 *
+	 * @param: number of the first offspring that may be mutated
+	 */
+	private void scheduleMutation(int from) {
+		nextMutation = (int)Math.min((long)from + rand.nextGeometric(mutationRate), Integer.MAX_VALUE);
+	}
+
+	/* Estimates the diversity of the population from random pairs of chromosomes.
+	 *
+	 * @return: average fraction of genes that differ between two chromosomes
+	 */
+	public double getDiversity() {
+		int size = population.size();
+		int differing = 0;
+		Chromosome thisChromo = null;
+		Chromosome thatChromo = null;
+
+		if(size < 2) {
+			return 0.0;
+		}
+		for(int i = 0; i < DIVERSITY_SAMPLES; i++) {
+			thisChromo = population.get(rand.nextInt(size));
+			thatChromo = population.get(rand.nextInt(size));
+			for(int j = 0; j < MAX_LENGTH; j++) {
+				if(thisChromo.getGene(j) != thatChromo.getGene(j)) {
+					differing++;
+				}
+			}
+		}
+		return (double)differing / ((double)DIVERSITY_SAMPLES * MAX_LENGTH);
+	}
+
+	/* Adds an offspring to the population. Once the population reaches MAX_POPULATION the offspring
+	 * takes the place of an individual chosen by the replacement policy instead of growing the population.
+	 * The offspring reuses the replaced or a pooled chromosome, its genes are left to be set by crossover.
+	 *
+	 * @return: index of the offspring in the population
+	 */
+	public int addOffspring() {
+		int index = -1;
+		Chromosome child = null;
+
+		if(MAX_POPULATION > 0 && population.size() >= MAX_POPULATION) {
+			index = chooseReplacement();
+		}
+
+		if(index < 0) {
+			child = newChromosome();
+			population.add(child);
+			index = population.size() - 1;
+			addConflicts(child.getConflicts());			//counted with its old conflicts until crossover sets its genes
+			markDirty(index);
+		} else {
+			child = population.get(index);
+		}
+		child.setBirth(births++);
+		return index;
+	}
+
+	/* Gets a chromosome from the pool, or creates one if the pool is empty.
+	 *
+	 * @return: a chromosome whose genes are not set
+	 */
+	private Chromosome newChromosome() {
+		Chromosome c = pool.poll();
+
+		if(c == null) {
+			c = new Chromosome(MAX_LENGTH, false);
+		}
+		c.setSelected(false);
+		return c;
+	}
+
+	/* Chooses the individual to be replaced according to the replacement policy.
+	 * Parents selected in this epoch and offspring born in this epoch are never replaced. Solutions are
+	 * only replaced, oldest first, once nothing else is left, so the population stays within its capacity.
+	 *
+	 * @return: index of the individual to replace, -1 if none can be replaced
+	 */
+	public int chooseReplacement() {
+		int victim = -1;
+		int index = 0;
+		Chromosome thisChromo = null;
+
+		if(REPLACEMENT == Replacement.TOURNAMENT) {
+			for(int i = 0; i < TOURNAMENT_SIZE; i++) {
+				index = getRandomNumber(0, population.size() - 1);
+				thisChromo = population.get(index);
+				if(isReplaceable(thisChromo) && (victim < 0 || thisChromo.getConflicts() > population.get(victim).getConflicts())) {
+					victim = index;
+				}
+			}
+			if(victim >= 0) {
+				return victim;
+			}
+		}
+
+		for(int i = 0; i < population.size(); i++) {				//worst or oldest replaceable individual
+			thisChromo = population.get(i);
+			if(!isReplaceable(thisChromo)) {
+				continue;
+			}
+			if(victim < 0) {
+				victim = i;
+			} else if(REPLACEMENT == Replacement.AGE) {
+				if(thisChromo.getBirth() < population.get(victim).getBirth()) {
+					victim = i;
+				}
+			} else if(thisChromo.getConflicts() > population.get(victim).getConflicts()) {
+				victim = i;
+			}
+		}
+		if(victim >= 0) {
+			return victim;
+		}
+
+		for(int i = 0; i < population.size(); i++) {				//only solutions left, they are already collected
+			thisChromo = population.get(i);
+			if(!thisChromo.isSelected() && thisChromo.getBirth() < epochBirths
+					&& (victim < 0 || thisChromo.getBirth() < population.get(victim).getBirth())) {
+				victim = i;
+			}
+		}
+		return victim;
+	}
+
+	/* Checks whether a chromosome may be replaced by an offspring.
+	 *
+	 * @param: a chromosome
+	 * @return: true if the chromosome is neither a solution, a selected parent nor an offspring of this epoch
+	 */
+	private boolean isReplaceable(Chromosome c) {
+		return !c.isSelected() && c.getBirth() < epochBirths && c.getConflicts() > 0;
+	}
+
+	/* Crossovers two chromosome parents. Uses partiallyMappedCrossover technique between two random crossover points.
 	 *
 	 * @param: parent A
 	 * @param: parent B
@@ -175,29 +843,40 @@ public class GeneticAlgorithm {
 	 * @param: child B
 	 */
 	public void partiallyMappedCrossover(int chromA, int chromB, int child1, int child2) {
-        int j = 0;
+        int crossPoint1 = getRandomNumber(0, MAX_LENGTH - 1);
+        int crossPoint2 = getExclusiveRandomNumber(MAX_LENGTH, crossPoint1);
+
+        partiallyMappedCrossover(chromA, chromB, child1, child2, Math.min(crossPoint1, crossPoint2), Math.max(crossPoint1, crossPoint2));
+	}
+
+	/* Crossovers two chromosome parents between two crossover points. Uses partiallyMappedCrossover technique.
+	 * Each child keeps a gene to position index so every exchange takes constant time.
+	 *
+	 * @param: parent A
+	 * @param: parent B
+	 * @param: child A
+	 * @param: child B
+	 * @param: first crossover point
+	 * @param: last crossover point
+	 */
+	public void partiallyMappedCrossover(int chromA, int chromB, int child1, int child2, int crossPoint1, int crossPoint2) {
         int item1 = 0;
         int item2 = 0;
-        int pos1 = 0;
-        int pos2 = 0;
         Chromosome thisChromo = population.get(chromA);
         Chromosome thatChromo = population.get(chromB);
         Chromosome newChromo1 = population.get(child1);
         Chromosome newChromo2 = population.get(child2);
-        int crossPoint1 = getRandomNumber(0, MAX_LENGTH - 1);
-        int crossPoint2 = getExclusiveRandomNumber(MAX_LENGTH - 1, crossPoint1);
-        
-        //gets the crosspoint from where to swap
-        if(crossPoint2 < crossPoint1) {
-            j = crossPoint1;
-            crossPoint1 = crossPoint2;
-            crossPoint2 = j;
-        }
+        int conflicts1 = newChromo1.getConflicts();
+        int conflicts2 = newChromo2.getConflicts();
 
         // Copy Parent genes to offspring.
+        newChromo1.copyGenes(thisChromo);
+        newChromo2.copyGenes(thatChromo);
+
+        // Index the position of every item in the offspring.
         for(int i = 0; i < MAX_LENGTH; i++) {
-            newChromo1.setGene(i, thisChromo.getGene(i));
-            newChromo2.setGene(i, thatChromo.getGene(i));
+            position1[newChromo1.getGene(i)] = i;
+            position2[newChromo2.getGene(i)] = i;
         }
 
         for(int i = crossPoint1; i <= crossPoint2; i++) {
@@ -205,37 +884,70 @@ public class GeneticAlgorithm {
             item1 = thisChromo.getGene(i);
             item2 = thatChromo.getGene(i);
 
-            // Get the items//  positions in the offspring.
-            for(j = 0; j < MAX_LENGTH; j++) {
-                if(newChromo1.getGene(j) == item1) {
-                    pos1 = j;
-                } else if (newChromo1.getGene(j) == item2) {
-                    pos2 = j;
-                }
-            } // j
-
             // Swap them.
             if(item1 != item2) {
-                newChromo1.setGene(pos1, item2);
-                newChromo1.setGene(pos2, item1);
+                exchangeItems(newChromo1, position1, item1, item2);
+                exchangeItems(newChromo2, position2, item1, item2);
             }
+        } // i
 
-            // Get the items//  positions in the offspring.
-            for(j = 0; j < MAX_LENGTH; j++) {
-                if(newChromo2.getGene(j) == item2) {
-                    pos1 = j;
-                } else if(newChromo2.getGene(j) == item1) {
-                    pos2 = j;
-                }
-            } // j
+        conflictsChanged(child1, conflicts1);
+        conflictsChanged(child2, conflicts2);
+	}
 
-            // Swap them.
-            if(item1 != item2) {
-                newChromo2.setGene(pos1, item1);
-                newChromo2.setGene(pos2, item2);
-            }
+	/* Exchanges the positions of two items in a child and keeps its position index up to date.
+	 *
+	 * @param: child chromosome
+	 * @param: position index of the child
+	 * @param: first item
+	 * @param: second item
+	 */
+	private void exchangeItems(Chromosome child, int[] position, int item1, int item2) {
+		int pos1 = position[item1];
+		int pos2 = position[item2];
 
-        } // i
+		child.swapGenes(pos1, pos2);
+		position[item1] = pos2;
+		position[item2] = pos1;
+	}
+
+	/* Improves a chromosome with min-conflicts moves. Each move picks a conflicted queen and
+	 * exchanges it with the best of a few random partners if that lowers the conflicts.
+	 * Every candidate exchange is evaluated in constant time by the diagonal counters.
+	 *
+	 * @param: index of the chromosome
+	 * @param: maximum number of moves
+	 */
+	public void localSearch(int index, int moves) {
+		Chromosome thisChromo = population.get(index);
+		int oldConflicts = thisChromo.getConflicts();
+		int queen = 0;
+		int partner = 0;
+		int bestPartner = 0;
+		int bestDelta = 0;
+		int delta = 0;
+
+		for(int move = 0; move < moves && thisChromo.getConflicts() > 0; move++) {
+			queen = getRandomNumber(0, MAX_LENGTH - 1);
+			for(int i = 0; i < MAX_LENGTH && !thisChromo.isAttacked(queen); i++) {		//next conflicted queen from a random start
+				queen = queen + 1 == MAX_LENGTH ? 0 : queen + 1;
+			}
+
+			bestDelta = 0;
+			for(int i = 0; i < LOCAL_SEARCH_SAMPLE; i++) {
+				partner = getExclusiveRandomNumber(MAX_LENGTH, queen);
+				delta = thisChromo.swapDelta(queen, partner);
+				if(delta < bestDelta) {
+					bestDelta = delta;
+					bestPartner = partner;
+				}
+			}
+
+			if(bestDelta < 0) {
+				thisChromo.swapGenes(queen, bestPartner);
+			}
+		}
+		conflictsChanged(index, oldConflicts);
 	}
 
 	/* Chooses a randomly selected parent.
@@ -244,23 +956,11 @@ public class GeneticAlgorithm {
 	 */
 	public int chooseParent() {
     	// Overloaded function, see also "chooseparent(ByVal parentA As Integer)".
-        int parent = 0;
-        Chromosome thisChromo = null;
-        boolean done = false;
-
-        while(!done) {
-            // Randomly choose an eligible parent.
-            parent = getRandomNumber(0, population.size() - 1);
-            thisChromo = population.get(parent);
-            if(thisChromo.isSelected() == true) {
-                done = true;
-            }
-        }
-
-        return parent;    	
+        return selectedParents[rand.nextInt(selectedCount)];
     }    
     
     /* Chooses a randomly selected parent which is not the parameter.
+	 * If no other parent was selected, another individual is selected for mating.
 	 *
 	 * @param: selected parent index
 	 * @return: random index of parent
@@ -268,109 +968,126 @@ public class GeneticAlgorithm {
     public int chooseParent(int parentA) {
         // Overloaded function, see also "chooseparent()".
         int parent = 0;
-        Chromosome thisChromo = null;
-        boolean done = false;
-
-        while(!done) {
-            // Randomly choose an eligible parent.
-            parent = getRandomNumber(0, population.size() - 1);
-            if(parent != parentA){
-                thisChromo = population.get(parent);
-                if(thisChromo.isSelected() == true){
-                    done = true;
-                }
+
+        if(selectedCount > 1) {
+            // Draw among the other selected parents, the last slot stands in for parentA.
+            parent = rand.nextInt(selectedCount - 1);
+            if(selectedParents[parent] == parentA) {
+                parent = selectedCount - 1;
             }
+            return selectedParents[parent];
         }
 
-        return parent;    	
+        parent = rand.nextInt(population.size() - 1);
+        if(parent >= parentA) {
+            parent++;
+        }
+        population.get(parent).setSelected(true);			//so it cannot be replaced while mating
+        selectedParents[selectedCount++] = parent;
+        return parent;
     } 
 
 	/* Chooses selected parents based on roulette selection.
+	 * The wheel is built once per epoch and each spin is a binary search over it.
+	 * The selected parents are listed once each in selectedParents.
 	 *
 	 */
 	public void rouletteSelection() {
-   	 	int j = 0;
+        int j = 0;
         int populationSize = population.size();
         int maximumToSelect = getRandomNumber(MIN_SELECT, MAX_SELECT);
-        double genTotal = 0.0;
-        double selTotal = 0.0;
-        double rouletteSpin = 0.0;
         Chromosome thisChromo = null;
-        Chromosome thatChromo = null;
-        boolean done = false;
-        
-        for(int i = 0; i < populationSize; i++) {												//get total fitness
-            thisChromo = population.get(i);
-            genTotal += thisChromo.getFitness();
-        }
-        
-        genTotal *= 0.01;															
 
-        for(int i = 0; i < populationSize; i++) {
-            thisChromo = population.get(i);
-            thisChromo.setSelectionProbability(thisChromo.getFitness() / genTotal);		//set selection probability. the more fit the better selection probability
+        wheel.reset();
+        for(int i = 0; i < populationSize; i++) {										//the more fit the better selection probability
+            if(selectionPressure == 1.0) {
+                wheel.add(population.get(i).getFitness());
+            } else {
+                wheel.add(Math.pow(population.get(i).getFitness(), selectionPressure));
+            }
         }
-        
+
+        selectedCount = 0;
         for(int i = 0; i < maximumToSelect; i++) {										//selects parents
-            rouletteSpin = getRandomNumber(0, 99);
-            j = 0;
-            selTotal = 0;
-            done = false;
-            while(!done) {
-                thisChromo = population.get(j);
-                selTotal += thisChromo.getSelectionProbability();
-                if(selTotal >= rouletteSpin) {
-					 if(j == 0) {
-					    thatChromo = population.get(j);
-					 } else if(j >= populationSize - 1) {
-					     thatChromo = population.get(populationSize - 1);
-					 } else {
-					     thatChromo = population.get(j-1);
-					 }
-					thatChromo.setSelected(true);
-					done = true;
-                } else {
-                    j++;
-                }
+            j = wheel.spin(rand);
+            thisChromo = population.get(j);
+            if(!thisChromo.isSelected()) {
+                thisChromo.setSelected(true);
+                selectedParents[selectedCount++] = j;
             }
         }
 	}
 
-	/* Sets the fitness of each chromosome based on its conflicts
+	/* Gets the parents selected in this epoch.
+	 *
+	 * @return: population indexes of the selected parents, the first getSelectedCount() are valid
+	 */
+	public int[] getSelectedParents() {
+		return selectedParents;
+	}
+
+	/* Gets the number of parents selected in this epoch.
+	 *
+	 * @return: number of selected parents
+	 */
+	public int getSelectedCount() {
+		return selectedCount;
+	}
+
+	/* Sets the fitness of each chromosome based on its conflicts.
+	 * While the fewest and most conflicts in the population stay the same, only the chromosomes
+	 * whose conflicts changed since the last call are scored again.
 	 *
 	 */
 	public void getFitness() {
 		// Lowest errors = 100%, Highest errors = 0%
 		int populationSize = population.size();
-		Chromosome thisChromo = null;
-		double bestScore = 0;
-		double worstScore = 0;
+		int best = getBestConflicts();
+		int worst = getWorstConflicts();
+
+		if(best != scoredBest || worst != scoredWorst) {						//the scale changed, score everyone
+			for(int i = 0; i < populationSize; i++) {
+				score(population.get(i), best, worst);
+			}
+			scoredBest = best;
+			scoredWorst = worst;
+		} else {
+			for(int i = 0; i < dirtyCount; i++) {
+				score(population.get(dirty[i]), best, worst);
+			}
+		}
+		clearDirty();
+	}
 
+	/* Sets the fitness of a chromosome on the scale of the population.
+	 *
+	 * @param: a chromosome
+	 * @param: fewest conflicts in the population
+	 * @param: most conflicts in the population
+	 */
+	private void score(Chromosome c, int best, int worst) {
 		// The worst score would be the one with the highest energy, best would be lowest.
-		worstScore = Collections.max(population).getConflicts();
+		double worstScore = worst;
 
 		// Convert to a weighted percentage.
-		bestScore = worstScore - Collections.min(population).getConflicts();
+		double bestScore = worstScore - best;
 
-		for(int i = 0; i < populationSize; i++) {
-			thisChromo = population.get(i);
-			thisChromo.setFitness((worstScore - thisChromo.getConflicts()) * 100.0 / bestScore);
-		}   
+		if(bestScore == 0) {										//a uniform population is equally fit
+			c.setFitness(100.0);
+		} else {
+			c.setFitness((worstScore - c.getConflicts()) * 100.0 / bestScore);
+		}
 	}
 
 	/* Resets all flags in the selection
 	 *
 	 */ 
 	public void prepNextEpoch() {
-		int populationSize = 0;
-		Chromosome thisChromo = null;
-
 		// Reset flags for selected individuals.
-		populationSize = population.size();
-		for(int i = 0; i < populationSize; i++) {
-			thisChromo = population.get(i);
-			thisChromo.setSelected(false);
-		}   
+		for(int i = 0; i < selectedCount; i++) {
+			population.get(selectedParents[i]).setSelected(false);
+		}
+		selectedCount = 0;
 	}
 
 	/* Prints the nxn board with the queens
@@ -413,15 +1130,17 @@ public class GeneticAlgorithm {
 		Chromosome newChromo = null;
 		int chromoIndex = 0;
 
-		for(int i = 0; i < START_SIZE; i++)  {
-			newChromo = new Chromosome(MAX_LENGTH);
+		for(int i = 0; i < START_SIZE && !isSolved(); i++)  {
+			newChromo = newChromosome();
+			newChromo.initChromosome();
+			newChromo.setBirth(births++);
 			population.add(newChromo);
-			chromoIndex = population.indexOf(newChromo);
+			chromoIndex = population.size() - 1;
+			track(chromoIndex);
 
 			// Randomly choose the number of shuffles to perform.
 			shuffles = getRandomNumber(MINIMUM_SHUFFLES, MAXIMUM_SHUFFLES);
 			exchangeMutation(chromoIndex, shuffles);
-			population.get(chromoIndex).computeConflicts();
 		}
 	}
 
@@ -431,52 +1150,50 @@ public class GeneticAlgorithm {
 	 * @param: number of exhanges
 	 */ 
 	public void exchangeMutation(int index, int exchanges) {
-		int tempData = 0;
 		int gene1 = 0;
 		int gene2 = 0;
 		Chromosome thisChromo = null;
 		thisChromo = population.get(index);
+		int oldConflicts = thisChromo.getConflicts();
 
 		for(int i = 0; i < exchanges; i++) {
 			gene1 = getRandomNumber(0, MAX_LENGTH - 1);
-			gene2 = getExclusiveRandomNumber(MAX_LENGTH - 1, gene1);
+			gene2 = getExclusiveRandomNumber(MAX_LENGTH, gene1);
 
-			// Exchange the chosen genes.
-			tempData = thisChromo.getGene(gene1);
-			thisChromo.setGene(gene1, thisChromo.getGene(gene2));
-			thisChromo.setGene(gene2, tempData);
+			// Exchange the chosen genes. Conflicts are kept up to date by the chromosome.
+			thisChromo.swapGenes(gene1, gene2);
 		}
+		conflictsChanged(index, oldConflicts);
 		mutations++;
 	}
 
-	/* Gets a random number with the exception of the parameter
+	/* Gets a random number with the exception of the parameter, drawn directly without retrying
 	 *
-	 * @param: the maximum random number
+	 * @param: the bound, numbers are below it
 	 * @param: number to to be chosen
-	 * @return: random number
+	 * @return: random number in [0, high) other than except
 	 */ 
 	public int getExclusiveRandomNumber(int high, int except) {
-		boolean done = false;
-		int getRand = 0;
-
-		while(!done) {
-			getRand = rand.nextInt(high);
-			if(getRand != except){
-				done = true;
-			}
-		}
-		return getRand;  
+		return rand.nextIntExcept(high, except);
 	}
 
 	/* Gets a random number in the range of the parameters
 	 *
 	 * @param: the minimum random number
 	 * @param: the maximum random number
-	 * @return: random number
+	 * @return: random number in [low, high], every value equally likely
 	 */ 
 	public int getRandomNumber(int low, int high) {
-   		return (int)Math.round((high - low) * rand.nextDouble() + low);
+		return rand.nextInt(low, high);
+	}
+	/* gets the number of chromosomes evaluated in the run: the starting population, offspring and migrants
+	 *
+	 * @return: evaluations
+	 */ 
+	public int getEvaluations() {
+		return births;
 	}
+
    /* gets the solutions
 	 *
 	 * @return: solutions
@@ -500,7 +1217,24 @@ public class GeneticAlgorithm {
 	public int getPopSize() {
 		return population.size();
 	}
-	
+
+	/* gets an individual of the population
+	 *
+	 * @param: index in the population
+	 * @return: the chromosome, recycled by the next run
+	 */
+	public Chromosome getChromosome(int index) {
+		return population.get(index);
+	}
+
+	/* gets the n of n queens
+	 *
+	 * @return: max length
+	 */ 
+	public int getMaxLength() {
+		return MAX_LENGTH;
+	}
+
 	/* gets the start size
 	 *
 	 * @return: start size
@@ -573,6 +1307,152 @@ public class GeneticAlgorithm {
 		return MAXIMUM_SHUFFLES;
 	}
 
+	/* gets the population capacity
+	 *
+	 * @return: population capacity, 0 if unbounded
+	 */ 
+	public int getMaxPopulation() {
+		return MAX_POPULATION;
+	}
+
+	/* gets the replacement policy
+	 *
+	 * @return: replacement policy
+	 */ 
+	public Replacement getReplacement() {
+		return REPLACEMENT;
+	}
+
+	/* sets a fixed population capacity and the policy used to replace individuals once it is reached.
+	 * The capacity should leave room for the selected parents and one epoch of offspring,
+	 * otherwise offspring are appended until older individuals become replaceable.
+	 *
+	 * @param: population capacity, 0 for an unbounded population
+	 * @param: replacement policy
+	 */ 
+	public void setPopulationLimit(int maxPopulation, Replacement replacement) {
+		this.MAX_POPULATION = maxPopulation;
+		this.REPLACEMENT = replacement;
+	}
+
+	/* gets the local search moves
+	 *
+	 * @return: min-conflicts moves per offspring
+	 */ 
+	public int getLocalSearch() {
+		return LOCAL_SEARCH_MOVES;
+	}
+
+	/* sets the number of min-conflicts moves applied to each offspring after crossover
+	 *
+	 * @param: moves per offspring, 0 to turn the local search off
+	 */ 
+	public void setLocalSearch(int moves) {
+		this.LOCAL_SEARCH_MOVES = Math.max(0, moves);
+	}
+
+	/* gets the solution target
+	 *
+	 * @return: distinct solutions a run looks for
+	 */ 
+	public int getSolutionTarget() {
+		return SOLUTION_TARGET;
+	}
+
+	/* sets the number of distinct solutions a run looks for before it stops
+	 *
+	 * @param: distinct solutions, at least 1
+	 */ 
+	public void setSolutionTarget(int target) {
+		this.SOLUTION_TARGET = Math.max(1, target);
+	}
+
+	/* gets whether the rates adapt to the population
+	 *
+	 * @return: true if an adaptive controller is used
+	 */ 
+	public boolean isAdaptive() {
+		return controller != null;
+	}
+
+	/* sets whether the mutation rate, mating probability and selection pressure adapt to the population
+	 * during a run. The configured rates are where each run starts.
+	 *
+	 * @param: true for adaptive rates, false for fixed rates
+	 */ 
+	public void setAdaptive(boolean adaptive) {
+		this.controller = adaptive ? new AdaptiveController() : null;
+	}
+
+	/* gets the adaptive controller
+	 *
+	 * @return: the controller, null for fixed rates
+	 */ 
+	public AdaptiveController getController() {
+		return controller;
+	}
+
+	/* sets a file the run is snapshotted to, so it can be continued with Checkpoint.load and resume
+	 *
+	 * @param: a string filename, null for no snapshots
+	 * @param: epochs between snapshots
+	 */ 
+	public void setCheckpoint(String filename, int interval) {
+		this.checkpointFile = filename;
+		this.CHECKPOINT_INTERVAL = Math.max(1, interval);
+	}
+
+	/* gets the epochs between snapshots
+	 *
+	 * @return: epochs between snapshots, 0 if no checkpoint was set
+	 */
+	public int getCheckpointInterval() {
+		return CHECKPOINT_INTERVAL;
+	}
+
+	/* sets the metrics counting and timing the operators, they can be shared by concurrent runs
+	 *
+	 * @param: the metrics, null for none
+	 */ 
+	public void setMetrics(GAMetrics newMetrics) {
+		this.metrics = newMetrics;
+	}
+
+	/* gets the metrics counting and timing the operators
+	 *
+	 * @return: the metrics, null for none
+	 */ 
+	public GAMetrics getMetrics() {
+		return metrics;
+	}
+
+	/* sets the listener receiving the progress of the runs
+	 *
+	 * @param: the listener, GAListener.NONE for none
+	 * @param: epochs between epoch events
+	 */
+	public void setListener(GAListener newListener, int sample) {
+		this.listener = newListener;
+		this.LISTENER_SAMPLE = Math.max(1, sample);
+	}
+
+	/* sets the seed of the random numbers, runs started after it are reproducible
+	 *
+	 * @param: the seed
+	 */ 
+	public void setSeed(long seed) {
+		this.seedSource = new SplitMix64(seed);
+	}
+
+	/* sets the generator the random numbers of each run are split from
+	 * runs of a generator other than SplitMix64 take no snapshots
+	 *
+	 * @param: the generator
+	 */ 
+	public void setRandomSource(RandomSource source) {
+		this.seedSource = source;
+	}
+
 	/* sets the mutation rate
 	 *
 	 * @param: new mutation rate value
@@ -589,4 +1469,48 @@ public class GeneticAlgorithm {
 		this.MAX_EPOCHS = newMaxEpoch;
 	}
 
+	/* sets the population size at start
+	 *
+	 * @param: new start size
+	 */ 
+	public void setStartSize(int newStartSize) {
+		this.START_SIZE = newStartSize;
+	}
+
+	/* sets the mating probability
+	 *
+	 * @param: new mating probability
+	 */ 
+	public void setMatingProb(double newMatingProbability) {
+		this.MATING_PROBABILITY = newMatingProbability;
+	}
+
+	/* sets the range of parents selected per epoch
+	 *
+	 * @param: minimum parents selected
+	 * @param: maximum parents selected
+	 */ 
+	public void setSelect(int newMinSelect, int newMaxSelect) {
+		this.MIN_SELECT = newMinSelect;
+		this.MAX_SELECT = newMaxSelect;
+	}
+
+	/* sets the offspring created per epoch
+	 *
+	 * @param: new offspring per generation
+	 */ 
+	public void setOffspring(int newOffspring) {
+		this.OFFSPRING_PER_GENERATION = newOffspring;
+	}
+
+	/* sets the range of shuffles used to randomize the starting chromosomes
+	 *
+	 * @param: minimum shuffles
+	 * @param: maximum shuffles
+	 */ 
+	public void setShuffles(int newMinShuffles, int newMaxShuffles) {
+		this.MINIMUM_SHUFFLES = newMinShuffles;
+		this.MAXIMUM_SHUFFLES = newMaxShuffles;
+	}
+
 }
\ No newline at end of file
@@ -0,0 +1,201 @@
+/* IslandGA.java
+ *
+ * Runs several GeneticAlgorithm.java populations (islands) concurrently on the n queens puzzle.
+ * Every few epochs the fittest chromosomes of each island migrate to another island.
+ * All islands stop as soon as one of them finds its target number of solutions.
+ *
+ * @version: 1.3
+ */
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+public class IslandGA {
+	/*ISLAND PARAMETERS*/
+	private int MAX_LENGTH;                 // chess board width. or n in n queens
+	private int ISLANDS;                    // Number of sub-populations evolved concurrently.
+	private int MIGRATION_INTERVAL;         // Epochs between migrations.
+	private int MIGRANTS;                   // Chromosomes sent by each island per migration.
+	private Topology TOPOLOGY;              // Where the migrants of an island are sent.
+
+	/* Migration topologies.
+	 * RING sends migrants to the next island, RANDOM to any other island.
+	 */
+	public enum Topology { RING, RANDOM }
+
+	private GeneticAlgorithm[] islands;
+	private ArrayList<Chromosome> solutions;
+	private RandomSource rand;              // Random numbers of the topology.
+	private int epoch;
+
+	/* Instantiates the islands, each with the default GA parameters.
+	 *
+	 * @param: size of n queens
+	 * @param: number of islands
+	 */
+	public IslandGA(int n, int islandCount) {
+		MAX_LENGTH = n;
+		ISLANDS = islandCount;
+		MIGRATION_INTERVAL = 10;
+		MIGRANTS = 2;
+		TOPOLOGY = Topology.RING;
+		islands = new GeneticAlgorithm[ISLANDS];
+		solutions = new ArrayList<Chromosome>();
+		rand = new SplitMix64();
+		epoch = 0;
+
+		for(int i = 0; i < ISLANDS; i++) {
+			islands[i] = new GeneticAlgorithm(MAX_LENGTH);
+		}
+	}
+
+	/* Evolves all islands until one finds a solution or every island reaches its max epoch.
+	 *
+	 * @return: true if a solution was found
+	 */
+	public boolean algorithm() {
+		ExecutorService executor = Executors.newFixedThreadPool(ISLANDS);
+		AtomicBoolean found = new AtomicBoolean(false);
+		List<Callable<Boolean>> tasks = new ArrayList<Callable<Boolean>>();
+		boolean done = false;
+
+		solutions = new ArrayList<Chromosome>();
+		epoch = 0;
+
+		for(GeneticAlgorithm island: islands) {
+			island.start();
+			tasks.add(() -> evolve(island, found));
+		}
+
+		try {
+			while(!done) {
+				done = true;
+				for(Future<Boolean> finished: executor.invokeAll(tasks)) {	//islands evolve until the next migration
+					done &= finished.get();
+				}
+				epoch += MIGRATION_INTERVAL;
+
+				if(found.get()) {
+					done = true;
+				} else if(!done) {
+					migrate();
+				}
+			}
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		} catch (ExecutionException e) {
+			System.out.println("Island failed: " + e.getCause());
+		} finally {
+			executor.shutdownNow();
+		}
+
+		for(GeneticAlgorithm island: islands) {
+			if(island.finish()) {
+				solutions.addAll(island.getSolutions());
+			}
+		}
+
+		return !solutions.isEmpty();
+	}
+
+	/* Evolves an island for one migration interval.
+	 *
+	 * @param: the island
+	 * @param: flag raised once any island finds a solution
+	 * @return: true if the island found a solution or reached its max epoch
+	 */
+	private boolean evolve(GeneticAlgorithm island, AtomicBoolean found) {
+		for(int i = 0; i < MIGRATION_INTERVAL; i++) {
+			if(found.get() || island.getEpoch() > island.getMaxEpoch()) {
+				return true;
+			}
+			if(island.nextEpoch()) {
+				if(island.isSolved()) {
+					found.set(true);
+				}
+				return true;
+			}
+		}
+		return false;
+	}
+
+	/* Sends the fittest chromosomes of every island to its neighbour in the topology.
+	 *
+	 */
+	private void migrate() {
+		ArrayList<ArrayList<Chromosome>> emigrants = new ArrayList<ArrayList<Chromosome>>();
+		int destination = 0;
+
+		for(GeneticAlgorithm island: islands) {							//take all emigrants before any island receives migrants
+			emigrants.add(island.getFittest(MIGRANTS));
+		}
+
+		for(int i = 0; i < ISLANDS; i++) {
+			if(TOPOLOGY == Topology.RANDOM && ISLANDS > 1) {
+				destination = rand.nextInt(ISLANDS - 1);
+				if(destination >= i) {
+					destination++;
+				}
+			} else {
+				destination = (i + 1) % ISLANDS;
+			}
+			islands[destination].immigrate(emigrants.get(i));
+		}
+	}
+
+	/* gets an island, used to change its GA parameters
+	 *
+	 * @param: index of the island
+	 * @return: the island
+	 */
+	public GeneticAlgorithm getIsland(int index) {
+		return islands[index];
+	}
+
+	/* gets the solutions
+	 *
+	 * @return: solutions
+	 */
+	public ArrayList<Chromosome> getSolutions() {
+		return solutions;
+	}
+
+	/* gets the epoch
+	 *
+	 * @return: epochs evolved by the islands, counted in migration intervals
+	 */
+	public int getEpoch() {
+		return epoch;
+	}
+
+	/* sets the seed of the random numbers. Every island gets its own stream split from it.
+	 *
+	 * @param: the seed
+	 */
+	public void setSeed(long seed) {
+		RandomSource source = new SplitMix64(seed);
+
+		for(GeneticAlgorithm island: islands) {
+			island.setRandomSource(source.split());
+		}
+		rand = source.split();
+	}
+
+	/* sets the migration parameters
+	 *
+	 * @param: epochs between migrations
+	 * @param: chromosomes sent by each island per migration
+	 * @param: migration topology
+	 */
+	public void setMigration(int interval, int migrants, Topology topology) {
+		this.MIGRATION_INTERVAL = interval;
+		this.MIGRANTS = migrants;
+		this.TOPOLOGY = topology;
+	}
+}
@@ -0,0 +1,305 @@
+/* PopulationStore.java
+ *
+ * Population of n queens chromosomes kept as primitive arrays, used by CompactGeneticAlgorithm.java
+ * The genes of every chromosome are rows of one gene matrix (capacity x n), and conflicts, fitness,
+ * selection flags and birth order are parallel arrays indexed by row.
+ * Operators work on row offsets so no object is created per chromosome.
+ *
+ * @version: 1.3
+ */
+
+import java.util.Arrays;
+
+public class PopulationStore {
+	private int MAX_LENGTH;						//n size
+	private int capacity;						//maximum number of rows
+	private int size;							//rows in use
+	private int[] genes;						//row r holds the queen positions of chromosome r from r * n
+	private int[] conflicts;					//number of collisions of each row
+	private double[] fitness;					//the fitness of each row towards the solution
+	private boolean[] selected;					//if the row is selected for mating
+	private int[] births;						//order in which each row entered the population
+	private int[] mainDiagonals;				//scratch queen counts on each row + column diagonal
+	private int[] antiDiagonals;				//scratch queen counts on each row - column diagonal
+	private int[] position1;					//scratch gene to position index of the first child
+	private int[] position2;					//scratch gene to position index of the second child
+
+	/* Instantiates an empty store.
+	 *
+	 * @param: size of n
+	 * @param: maximum number of chromosomes
+	 */
+	public PopulationStore(int n, int capacity) {
+		MAX_LENGTH = n;
+		this.capacity = capacity;
+		size = 0;
+		genes = new int[capacity * MAX_LENGTH];
+		conflicts = new int[capacity];
+		fitness = new double[capacity];
+		selected = new boolean[capacity];
+		births = new int[capacity];
+		mainDiagonals = new int[2 * MAX_LENGTH - 1];
+		antiDiagonals = new int[2 * MAX_LENGTH - 1];
+		position1 = new int[MAX_LENGTH];
+		position2 = new int[MAX_LENGTH];
+	}
+
+	/* Removes all rows.
+	 *
+	 */
+	public void clear() {
+		size = 0;
+		Arrays.fill(selected, false);
+	}
+
+	/* Adds a row to the store.
+	 *
+	 * @return: index of the new row, -1 if the store is full
+	 */
+	public int addRow() {
+		if(size == capacity) {
+			return -1;
+		}
+		selected[size] = false;
+		return size++;
+	}
+
+	/* Removes the last row added.
+	 *
+	 */
+	public void removeLastRow() {
+		if(size > 0) {
+			size--;
+		}
+	}
+
+	/* Places the queens of a row on the diagonal.
+	 *
+	 * @param: index of the row
+	 */
+	public void initRow(int row) {
+		int offset = row * MAX_LENGTH;
+
+		for(int i = 0; i < MAX_LENGTH; i++) {
+			genes[offset + i] = i;
+		}
+	}
+
+	/* Computes the conflicts of a row, counting k * (k - 1) for every diagonal holding k queens.
+	 *
+	 * @param: index of the row
+	 */
+	public void computeConflicts(int row) {
+		int offset = row * MAX_LENGTH;
+		int column = 0;
+		int count = 0;
+
+		Arrays.fill(mainDiagonals, 0);
+		Arrays.fill(antiDiagonals, 0);
+
+		for(int i = 0; i < MAX_LENGTH; i++) {
+			column = genes[offset + i];
+			count += mainDiagonals[i + column]++;
+			count += antiDiagonals[i - column + MAX_LENGTH - 1]++;
+		}
+
+		conflicts[row] = 2 * count;
+	}
+
+	/* Exchanges two genes of a row. The conflicts have to be recomputed afterwards.
+	 *
+	 * @param: index of the row
+	 * @param: first gene
+	 * @param: second gene
+	 */
+	public void exchange(int row, int gene1, int gene2) {
+		int offset = row * MAX_LENGTH;
+		int tempData = genes[offset + gene1];
+
+		genes[offset + gene1] = genes[offset + gene2];
+		genes[offset + gene2] = tempData;
+	}
+
+	/* Crossovers two parent rows into two child rows using partially mapped crossover.
+	 * Keeps a gene to position index for each child so every exchange takes constant time.
+	 *
+	 * @param: parent A
+	 * @param: parent B
+	 * @param: child A
+	 * @param: child B
+	 * @param: first crossover point
+	 * @param: last crossover point
+	 */
+	public void partiallyMappedCrossover(int rowA, int rowB, int child1, int child2, int crossPoint1, int crossPoint2) {
+		int offsetA = rowA * MAX_LENGTH;
+		int offsetB = rowB * MAX_LENGTH;
+		int offset1 = child1 * MAX_LENGTH;
+		int offset2 = child2 * MAX_LENGTH;
+		int item1 = 0;
+		int item2 = 0;
+
+		// Copy Parent genes to offspring.
+		System.arraycopy(genes, offsetA, genes, offset1, MAX_LENGTH);
+		System.arraycopy(genes, offsetB, genes, offset2, MAX_LENGTH);
+
+		for(int i = 0; i < MAX_LENGTH; i++) {
+			position1[genes[offset1 + i]] = i;
+			position2[genes[offset2 + i]] = i;
+		}
+
+		for(int i = crossPoint1; i <= crossPoint2; i++) {
+			// Get the two items to swap.
+			item1 = genes[offsetA + i];
+			item2 = genes[offsetB + i];
+
+			if(item1 != item2) {
+				exchangeItems(offset1, position1, item1, item2);
+				exchangeItems(offset2, position2, item1, item2);
+			}
+		}
+	}
+
+	/* Exchanges the positions of two items in a child and its position index.
+	 *
+	 * @param: offset of the child row
+	 * @param: position index of the child
+	 * @param: first item
+	 * @param: second item
+	 */
+	private void exchangeItems(int offset, int[] position, int item1, int item2) {
+		int pos1 = position[item1];
+		int pos2 = position[item2];
+
+		genes[offset + pos1] = item2;
+		genes[offset + pos2] = item1;
+		position[item1] = pos2;
+		position[item2] = pos1;
+	}
+
+	/* Sets the fitness of each row based on its conflicts.
+	 * Lowest conflicts = 100%, highest conflicts = 0%.
+	 *
+	 */
+	public void computeFitness() {
+		int worstScore = 0;
+		int bestScore = Integer.MAX_VALUE;
+
+		for(int row = 0; row < size; row++) {
+			worstScore = Math.max(worstScore, conflicts[row]);
+			bestScore = Math.min(bestScore, conflicts[row]);
+		}
+
+		for(int row = 0; row < size; row++) {
+			if(worstScore == bestScore) {							//a uniform population is equally fit
+				fitness[row] = 100.0;
+			} else {
+				fitness[row] = (worstScore - conflicts[row]) * 100.0 / (worstScore - bestScore);
+			}
+		}
+	}
+
+	/* Copies a row into a chromosome, used for logging and printing.
+	 *
+	 * @param: index of the row
+	 * @return: a chromosome with the genes of the row
+	 */
+	public Chromosome toChromosome(int row) {
+		Chromosome c = new Chromosome(MAX_LENGTH);
+		int offset = row * MAX_LENGTH;
+
+		for(int i = 0; i < MAX_LENGTH; i++) {
+			c.setGene(i, genes[offset + i]);
+		}
+		c.setFitness(fitness[row]);
+		c.setBirth(births[row]);
+		return c;
+	}
+
+	/* Gets the gene/data of a row on a specified index.
+	 *
+	 * @param: index of the row
+	 * @param: index of data
+	 * @return: position of queen
+	 */
+	public int getGene(int row, int index) {
+		return genes[row * MAX_LENGTH + index];
+	}
+
+	/* Gets the conflicts of a row.
+	 *
+	 * @param: index of the row
+	 * @return: number of conflicts of the row
+	 */
+	public int getConflicts(int row) {
+		return conflicts[row];
+	}
+
+	/* Gets the fitness of a row.
+	 *
+	 * @param: index of the row
+	 * @return: fitness of the row
+	 */
+	public double getFitness(int row) {
+		return fitness[row];
+	}
+
+	/* Gets whether a row is selected.
+	 *
+	 * @param: index of the row
+	 * @return: boolean value if selected
+	 */
+	public boolean isSelected(int row) {
+		return selected[row];
+	}
+
+	/* Sets whether a row is selected.
+	 *
+	 * @param: index of the row
+	 * @param: boolean value if selected
+	 */
+	public void setSelected(int row, boolean isSelected) {
+		selected[row] = isSelected;
+	}
+
+	/* Gets the birth order of a row.
+	 *
+	 * @param: index of the row
+	 * @return: birth order of the row
+	 */
+	public int getBirth(int row) {
+		return births[row];
+	}
+
+	/* Sets the birth order of a row.
+	 *
+	 * @param: index of the row
+	 * @param: new birth order of the row
+	 */
+	public void setBirth(int row, int birth) {
+		births[row] = birth;
+	}
+
+	/* Gets the number of rows in use.
+	 *
+	 * @return: population size
+	 */
+	public int size() {
+		return size;
+	}
+
+	/* Gets the maximum number of rows.
+	 *
+	 * @return: capacity
+	 */
+	public int getCapacity() {
+		return capacity;
+	}
+
+	/* Gets the max length.
+	 *
+	 * @return: max length
+	 */
+	public int getMaxLength() {
+		return MAX_LENGTH;
+	}
+}
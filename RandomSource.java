@@ -0,0 +1,90 @@
+/* RandomSource.java
+ *
+ * Random number generator used by the GA operators.
+ * Generators are not synchronized: every run, island or thread uses its own source,
+ * created with split() so that runs started from the same seed are reproducible.
+ *
+ * @version: 1.3
+ */
+
+public interface RandomSource {
+	/* Gets the next 64 random bits.
+	 *
+	 * @return: random long
+	 */
+	long nextLong();
+
+	/* Creates an independent generator whose sequence is determined by the state of this one.
+	 *
+	 * @return: a new generator
+	 */
+	RandomSource split();
+
+	/* Gets a random double.
+	 *
+	 * @return: random number in [0, 1)
+	 */
+	default double nextDouble() {
+		return (nextLong() >>> 11) * 0x1.0p-53;
+	}
+
+	/* Gets a random int below a bound, every value equally likely.
+	 * Uses Lemire's multiply-shift method, which divides only in the rare case a draw is rejected.
+	 *
+	 * @param: the bound, greater than 0
+	 * @return: random number in [0, bound)
+	 */
+	default int nextInt(int bound) {
+		long m = (nextLong() >>> 32) * bound;
+		int low = (int)m;
+		int threshold = 0;
+
+		if(Integer.compareUnsigned(low, bound) < 0) {
+			threshold = Integer.remainderUnsigned(-bound, bound);
+			while(Integer.compareUnsigned(low, threshold) < 0) {
+				m = (nextLong() >>> 32) * bound;
+				low = (int)m;
+			}
+		}
+		return (int)(m >>> 32);
+	}
+
+	/* Gets a random int in a range, every value including both ends equally likely.
+	 *
+	 * @param: the minimum random number
+	 * @param: the maximum random number
+	 * @return: random number in [low, high]
+	 */
+	default int nextInt(int low, int high) {
+		return low + nextInt(high - low + 1);
+	}
+
+	/* Gets the number of failed trials before the first success, each trial succeeding with a probability.
+	 * Draws the geometric distribution at once by inversion instead of one trial at a time.
+	 *
+	 * @param: probability of success of a trial
+	 * @return: failed trials, Integer.MAX_VALUE if trials never succeed
+	 */
+	default int nextGeometric(double probability) {
+		if(probability >= 1.0) {
+			return 0;
+		}
+		if(probability <= 0.0) {
+			return Integer.MAX_VALUE;
+		}
+		return (int)Math.min(Math.floor(Math.log(1.0 - nextDouble()) / Math.log(1.0 - probability)), Integer.MAX_VALUE);
+	}
+
+	/* Gets a random int below a bound other than the given one, without retrying.
+	 * Paired with nextInt(bound) it draws two distinct values.
+	 *
+	 * @param: the bound, greater than 1
+	 * @param: value not to return
+	 * @return: random number in [0, bound) other than except
+	 */
+	default int nextIntExcept(int bound, int except) {
+		int r = nextInt(bound - 1);
+
+		return r >= except ? r + 1 : r;
+	}
+}
@@ -0,0 +1,226 @@
+/* ResultFile.java
+ *
+ * Compact binary alternative to the text log of TesterGA.java
+ * Stores the GA parameters, then per run its number, runtime, epoch, population size and solutions
+ * as raw permutations (one byte, short or int per queen depending on n), then the test timings.
+ * Identical solutions of a run are stored once.
+ * The file is read back with: java ResultFile file [-boards]
+ *
+ * @version: 1.3
+ */
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.IntBuffer;
+import java.util.ArrayList;
+import java.util.HashSet;
+
+public class ResultFile {
+	private static final int MAGIC = 0x47414231;			//"GAB1"
+	private static final int RUN = 'R';						//tag of a run record
+	private static final int SUMMARY = 'S';					//tag of the closing record
+	private DataOutputStream out;
+	private int MAX_LENGTH;
+	private int width;										//bytes stored per queen
+
+	/* Instantiates a closed result file.
+	 *
+	 */
+	public ResultFile() {
+		out = null;
+	}
+
+	/* Creates the file and writes the parameters of the GA.
+	 *
+	 * @param: a string filename
+	 * @param: the genetic algorithm being tested
+	 */
+	public void open(String filename, GeneticAlgorithm ga) throws IOException {
+		MAX_LENGTH = ga.getMaxLength();
+		width = queenWidth(MAX_LENGTH);
+		out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(filename), 1 << 16));
+
+		out.writeInt(MAGIC);
+		out.writeInt(MAX_LENGTH);
+		out.writeInt(ga.getStartSize());
+		out.writeInt(ga.getMaxEpoch());
+		out.writeDouble(ga.getMatingProb());
+		out.writeDouble(ga.getMutationRate());
+		out.writeInt(ga.getMinSelect());
+		out.writeInt((int)ga.getMaxSelect());
+		out.writeInt((int)ga.getOffspring());
+		out.writeInt(ga.getShuffleMin());
+		out.writeInt(ga.getShuffleMax());
+	}
+
+	/* Writes a successful run and its distinct solutions.
+	 *
+	 * @param: run number
+	 * @param: runtime in nanoseconds
+	 * @param: epoch the solution was found at
+	 * @param: population size
+	 * @param: solutions found in the run
+	 */
+	public void addRun(int run, long runtime, int epoch, int popSize, ArrayList<Chromosome> solutions) throws IOException {
+		ArrayList<int[]> distinct = new ArrayList<int[]>();
+		HashSet<IntBuffer> seen = new HashSet<IntBuffer>();
+		int[] genes = null;
+
+		for(Chromosome c: solutions) {
+			genes = new int[MAX_LENGTH];
+			for(int i = 0; i < MAX_LENGTH; i++) {
+				genes[i] = c.getGene(i);
+			}
+			if(seen.add(IntBuffer.wrap(genes))) {				//IntBuffer compares its contents
+				distinct.add(genes);
+			}
+		}
+
+		out.writeByte(RUN);
+		out.writeInt(run);
+		out.writeLong(runtime);
+		out.writeInt(epoch);
+		out.writeInt(popSize);
+		out.writeInt(distinct.size());
+		for(int[] solution: distinct) {
+			for(int queen: solution) {
+				if(width == 1) {
+					out.writeByte(queen);
+				} else if(width == 2) {
+					out.writeShort(queen);
+				} else {
+					out.writeInt(queen);
+				}
+			}
+		}
+	}
+
+	/* Writes the test timings and closes the file.
+	 *
+	 * @param: start of the test in nanoseconds
+	 * @param: end of the test in nanoseconds
+	 */
+	public void close(long testStart, long testEnd) throws IOException {
+		out.writeByte(SUMMARY);
+		out.writeLong(testStart);
+		out.writeLong(testEnd);
+		out.close();
+		out = null;
+	}
+
+	/* Gets the bytes needed to store the position of a queen.
+	 *
+	 * @param: length of n
+	 * @return: 1, 2 or 4 bytes
+	 */
+	private static int queenWidth(int n) {
+		if(n <= 256) {
+			return 1;
+		} else if(n <= 65536) {
+			return 2;
+		}
+		return 4;
+	}
+
+	/* Renders a solution as an ASCII board, one line per row.
+	 *
+	 * @param: position of the queen in each column
+	 * @return: the board
+	 */
+	public static String render(int[] genes) {
+		int n = genes.length;
+		StringBuilder board = new StringBuilder(n * (2 * n + 1));
+
+		for(int y = 0; y < n; y++) {
+			for(int x = 0; x < n; x++) {
+				board.append(genes[x] == y ? "Q " : ". ");
+			}
+			board.append('\n');
+		}
+		return board.toString();
+	}
+
+	/* Prints the contents of a result file in the same layout as the text log.
+	 *
+	 * @param: a string filename
+	 * @param: whether to render the solution boards
+	 */
+	public static void print(String filename, boolean boards) throws IOException {
+		DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(filename), 1 << 16));
+		int n = 0;
+		int width = 0;
+		int tag = 0;
+		int count = 0;
+		int[] genes = null;
+
+		try {
+			if(in.readInt() != MAGIC) {
+				throw new IOException("Not a GA result file: " + filename);
+			}
+			n = in.readInt();
+			width = queenWidth(n);
+			System.out.println("Genetic Algorithm");
+			System.out.println("Parameters");
+			System.out.println("MAX_LENGTH/N: " + n);
+			System.out.println("STARTING_POPULATION: " + in.readInt());
+			System.out.println("MAX_EPOCHS: " + in.readInt());
+			System.out.println("MATING_PROBABILITY: " + in.readDouble());
+			System.out.println("MUTATION_RATE: " + in.readDouble());
+			System.out.println("MIN_SELECTED_PARENTS: " + in.readInt());
+			System.out.println("MAX_SELECTED_PARENTS: " + in.readInt());
+			System.out.println("OFFSPRING_PER_GENERATION: " + in.readInt());
+			System.out.println("MINIMUM_SHUFFLES: " + in.readInt());
+			System.out.println("MAXIMUM_SHUFFLES: " + in.readInt());
+			System.out.println();
+
+			while(true) {
+				try {
+					tag = in.readUnsignedByte();
+				} catch (EOFException e) {
+					break;
+				}
+
+				if(tag == SUMMARY) {
+					long testStart = in.readLong();
+					long testEnd = in.readLong();
+					System.out.println("Test runtime in nanoseconds: " + (testEnd - testStart));
+					break;
+				}
+
+				System.out.println("Run: " + in.readInt());
+				System.out.println("Runtime in nanoseconds: " + in.readLong());
+				System.out.println("Found at epoch: " + in.readInt());
+				System.out.println("Population size: " + in.readInt());
+				count = in.readInt();
+				System.out.println("Distinct solutions: " + count);
+				System.out.println();
+
+				for(int s = 0; s < count; s++) {
+					genes = new int[n];
+					for(int i = 0; i < n; i++) {
+						genes[i] = width == 1 ? in.readUnsignedByte() : width == 2 ? in.readUnsignedShort() : in.readInt();
+					}
+					if(boards) {
+						System.out.println(render(genes));
+					}
+				}
+			}
+		} finally {
+			in.close();
+		}
+	}
+
+	public static void main(String args[]) throws IOException {
+		if(args.length == 0) {
+			System.out.println("Usage: java ResultFile file [-boards]");
+			return;
+		}
+		print(args[0], args.length > 1 && args[1].equals("-boards"));
+	}
+}
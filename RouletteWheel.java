@@ -0,0 +1,78 @@
+/* RouletteWheel.java
+ *
+ * Roulette wheel used for selecting parents in GeneticAlgorithm.java and CompactGeneticAlgorithm.java
+ * The wheel is built once per epoch as a prefix sum of the weights, and every spin is a binary search.
+ *
+ * @version: 1.3
+ */
+
+import java.util.Arrays;
+
+public class RouletteWheel {
+	private double[] cumulative;				//cumulative[i] is the sum of the first i + 1 weights
+	private int size;							//number of slots on the wheel
+
+	/* Instantiates an empty wheel.
+	 *
+	 * @param: expected number of slots, the wheel grows past it when needed
+	 */
+	public RouletteWheel(int capacity) {
+		cumulative = new double[Math.max(capacity, 1)];
+		size = 0;
+	}
+
+	/* Removes all slots from the wheel.
+	 *
+	 */
+	public void reset() {
+		size = 0;
+	}
+
+	/* Adds a slot to the wheel.
+	 *
+	 * @param: weight of the slot, the chance of landing on it is proportional to it
+	 */
+	public void add(double weight) {
+		if(size == cumulative.length) {
+			cumulative = Arrays.copyOf(cumulative, size * 2);
+		}
+		cumulative[size] = (size == 0 ? 0.0 : cumulative[size - 1]) + Math.max(weight, 0.0);
+		size++;
+	}
+
+	/* Spins the wheel. Every slot is equally likely when all weights are zero.
+	 *
+	 * @param: random number generator
+	 * @return: index of the slot landed on
+	 */
+	public int spin(RandomSource rand) {
+		double total = cumulative[size - 1];
+		double rouletteSpin = 0.0;
+		int low = 0;
+		int high = size - 1;
+		int middle = 0;
+
+		if(!(total > 0.0)) {
+			return rand.nextInt(size);
+		}
+
+		rouletteSpin = rand.nextDouble() * total;
+		while(low < high) {											//first slot whose cumulative weight passes the spin
+			middle = (low + high) >>> 1;
+			if(cumulative[middle] > rouletteSpin) {
+				high = middle;
+			} else {
+				low = middle + 1;
+			}
+		}
+		return low;
+	}
+
+	/* Gets the number of slots on the wheel.
+	 *
+	 * @return: number of slots
+	 */
+	public int size() {
+		return size;
+	}
+}
@@ -0,0 +1,142 @@
+/* RunStatistics.java
+ *
+ * Histogram of non-negative measurements, such as run times in nanoseconds or epochs, used by TesterGA.java
+ * Values are counted in log-linear buckets as in an HDR histogram: every power of two range is split into
+ * 64 linear sub-buckets, so a percentile is within about 1.6% of the recorded value whatever its size,
+ * in a fixed amount of memory and constant time per value.
+ *
+ * @version: 1.3
+ */
+
+import java.util.Arrays;
+
+public class RunStatistics {
+	private static final int SUB_BUCKET_BITS = 6;
+	private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;		//linear sub-buckets per power of two
+	private long[] counts;
+	private long count;
+	private long sum;
+	private long min;
+	private long max;
+
+	/* Instantiates an empty histogram.
+	 *
+	 */
+	public RunStatistics() {
+		counts = new long[(64 - SUB_BUCKET_BITS) * SUB_BUCKETS];
+		reset();
+	}
+
+	/* Removes all values.
+	 *
+	 */
+	public void reset() {
+		Arrays.fill(counts, 0);
+		count = 0;
+		sum = 0;
+		min = Long.MAX_VALUE;
+		max = 0;
+	}
+
+	/* Records a value.
+	 *
+	 * @param: the value, negative values count as 0
+	 */
+	public void record(long value) {
+		value = Math.max(0, value);
+		counts[bucket(value)]++;
+		count++;
+		sum += value;
+		min = Math.min(min, value);
+		max = Math.max(max, value);
+	}
+
+	/* Gets the bucket of a value. Values below 2 * SUB_BUCKETS have a bucket each.
+	 *
+	 * @param: the value
+	 * @return: index of the bucket
+	 */
+	private int bucket(long value) {
+		int shift = 63 - Long.numberOfLeadingZeros(value) - SUB_BUCKET_BITS;
+
+		if(shift <= 0) {
+			return (int)value;
+		}
+		return (shift + 1) * SUB_BUCKETS + (int)(value >>> shift) - SUB_BUCKETS;
+	}
+
+	/* Gets the largest value counted in a bucket.
+	 *
+	 * @param: index of the bucket
+	 * @return: upper end of the bucket
+	 */
+	private long highestValue(int bucket) {
+		int shift = bucket / SUB_BUCKETS - 1;
+
+		if(shift <= 0) {
+			return bucket;
+		}
+		return (((long)(bucket % SUB_BUCKETS + SUB_BUCKETS) + 1) << shift) - 1;
+	}
+
+	/* Gets the value below or at which a percentage of the values fall.
+	 *
+	 * @param: the percentile, 0 to 100
+	 * @return: the value, 0 if nothing was recorded
+	 */
+	public long getPercentile(double percentile) {
+		long rank = Math.max(1, (long)Math.ceil(percentile / 100.0 * count));
+		long seen = 0;
+
+		if(count == 0) {
+			return 0;
+		}
+		for(int i = 0; i < counts.length; i++) {
+			seen += counts[i];
+			if(seen >= rank) {
+				return Math.max(min, Math.min(max, highestValue(i)));
+			}
+		}
+		return max;
+	}
+
+	/* Gets the number of values.
+	 *
+	 * @return: number of values
+	 */
+	public long getCount() {
+		return count;
+	}
+
+	/* Gets the sum of the values.
+	 *
+	 * @return: sum of the values
+	 */
+	public long getSum() {
+		return sum;
+	}
+
+	/* Gets the mean of the values.
+	 *
+	 * @return: the mean, 0 if nothing was recorded
+	 */
+	public double getMean() {
+		return count == 0 ? 0.0 : (double)sum / count;
+	}
+
+	/* Gets the smallest value.
+	 *
+	 * @return: the smallest value, 0 if nothing was recorded
+	 */
+	public long getMin() {
+		return count == 0 ? 0 : min;
+	}
+
+	/* Gets the largest value.
+	 *
+	 * @return: the largest value
+	 */
+	public long getMax() {
+		return max;
+	}
+}
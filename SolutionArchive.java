@@ -0,0 +1,192 @@
+/* SolutionArchive.java
+ *
+ * Persistent store of the distinct n queens solutions found across runs and sweeps.
+ * Every solution is reduced to a canonical form, the smallest of its 8 rotations and reflections,
+ * so symmetric solutions count once. Canonical forms are appended to a memory-mapped file and
+ * indexed in a hash set, so checking whether a solution is known takes constant time.
+ * File layout: magic, n, count, then count canonical forms of n ints.
+ *
+ * @version: 1.3
+ */
+
+import java.io.IOException;
+import java.nio.IntBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.HashSet;
+
+public class SolutionArchive {
+	private static final int MAGIC = 0x47414131;			//"GAA1"
+	private static final int HEADER = 12;					//bytes before the first solution
+	private int MAX_LENGTH;
+	private FileChannel channel;
+	private MappedByteBuffer buffer;
+	private HashSet<IntBuffer> known;						//canonical forms, IntBuffer compares its contents
+	private int count;										//solutions in the archive
+	private int capacity;									//solutions that fit in the mapped region
+	private int[] transformed;								//scratch for the symmetries of a solution
+
+	/* Opens the archive file, creating it if needed, and indexes the solutions in it.
+	 *
+	 * @param: a string filename
+	 * @param: size of n
+	 */
+	public SolutionArchive(String filename, int n) throws IOException {
+		MAX_LENGTH = n;
+		channel = FileChannel.open(Paths.get(filename), StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+		known = new HashSet<IntBuffer>();
+		transformed = new int[MAX_LENGTH];
+		count = 0;
+
+		if(channel.size() == 0) {
+			map(64);
+			buffer.putInt(0, MAGIC);
+			buffer.putInt(4, MAX_LENGTH);
+			buffer.putInt(8, 0);
+		} else {
+			map((int)((channel.size() - HEADER) / recordBytes()));
+			if(buffer.getInt(0) != MAGIC || buffer.getInt(4) != MAX_LENGTH) {
+				channel.close();
+				throw new IOException("Not a solution archive for n = " + MAX_LENGTH + ": " + filename);
+			}
+			count = buffer.getInt(8);
+			for(int s = 0; s < count; s++) {
+				int[] solution = new int[MAX_LENGTH];
+				for(int i = 0; i < MAX_LENGTH; i++) {
+					solution[i] = buffer.getInt(offset(s) + 4 * i);
+				}
+				known.add(IntBuffer.wrap(solution));
+			}
+		}
+	}
+
+	/* Adds a solution to the archive unless it or one of its symmetries is already there.
+	 *
+	 * @param: a chromosome without conflicts
+	 * @return: true if the solution was new
+	 */
+	public boolean add(Chromosome c) throws IOException {
+		int[] canonical = canonicalForm(c);
+
+		if(!known.add(IntBuffer.wrap(canonical))) {
+			return false;
+		}
+
+		if(count == capacity) {
+			map(capacity * 2);
+		}
+		for(int i = 0; i < MAX_LENGTH; i++) {
+			buffer.putInt(offset(count) + 4 * i, canonical[i]);
+		}
+		count++;
+		buffer.putInt(8, count);
+		return true;
+	}
+
+	/* Checks whether a solution or one of its symmetries is in the archive.
+	 *
+	 * @param: a chromosome without conflicts
+	 * @return: true if the solution is known
+	 */
+	public boolean contains(Chromosome c) {
+		return known.contains(IntBuffer.wrap(canonicalForm(c)));
+	}
+
+	/* Computes the canonical form of a solution: the lexicographically smallest
+	 * of the 8 rotations and reflections of the board.
+	 *
+	 * @param: a chromosome
+	 * @return: queen position of each column in the canonical board
+	 */
+	public int[] canonicalForm(Chromosome c) {
+		int[] canonical = new int[MAX_LENGTH];
+		int last = MAX_LENGTH - 1;
+		int x = 0;
+		int y = 0;
+
+		for(int i = 0; i < MAX_LENGTH; i++) {
+			canonical[i] = c.getGene(i);
+		}
+
+		for(int symmetry = 1; symmetry < 8; symmetry++) {
+			for(int i = 0; i < MAX_LENGTH; i++) {
+				x = i;
+				y = c.getGene(i);
+				if((symmetry & 4) != 0) {						//reflect over the diagonal
+					x = y;
+					y = i;
+				}
+				if((symmetry & 1) != 0) {						//reflect the columns
+					x = last - x;
+				}
+				if((symmetry & 2) != 0) {						//reflect the rows
+					y = last - y;
+				}
+				transformed[x] = y;
+			}
+			if(compare(transformed, canonical) < 0) {
+				System.arraycopy(transformed, 0, canonical, 0, MAX_LENGTH);
+			}
+		}
+		return canonical;
+	}
+
+	/* Compares two solutions lexicographically.
+	 *
+	 * @param: first solution
+	 * @param: second solution
+	 * @return: negative, zero or positive as the first is smaller, equal or larger
+	 */
+	private int compare(int[] a, int[] b) {
+		for(int i = 0; i < MAX_LENGTH; i++) {
+			if(a[i] != b[i]) {
+				return a[i] - b[i];
+			}
+		}
+		return 0;
+	}
+
+	/* Maps the archive file with room for a number of solutions, growing the file if needed.
+	 *
+	 * @param: number of solutions
+	 */
+	private void map(int solutions) throws IOException {
+		capacity = Math.max(solutions, 1);
+		buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, offset(capacity));
+	}
+
+	/* Gets the file position of a solution.
+	 *
+	 * @param: index of the solution
+	 * @return: byte offset
+	 */
+	private int offset(int solution) {
+		return HEADER + solution * recordBytes();
+	}
+
+	/* Gets the bytes used by one solution.
+	 *
+	 * @return: record size
+	 */
+	private int recordBytes() {
+		return 4 * MAX_LENGTH;
+	}
+
+	/* Gets the number of distinct solutions in the archive.
+	 *
+	 * @return: number of solutions
+	 */
+	public int size() {
+		return count;
+	}
+
+	/* Writes the mapped solutions to disk and closes the archive.
+	 *
+	 */
+	public void close() throws IOException {
+		buffer.force();
+		channel.close();
+	}
+}
@@ -0,0 +1,101 @@
+/* SplitMix64.java
+ *
+ * Fast, non-synchronized RandomSource implementing the SplitMix64 generator,
+ * the algorithm behind java.util.SplittableRandom. Its whole state is two longs,
+ * so it can be saved and restored with getSeed/getGamma.
+ *
+ * @version: 1.3
+ */
+
+import java.util.concurrent.atomic.AtomicLong;
+
+public class SplitMix64 implements RandomSource {
+	private static final long GOLDEN_GAMMA = 0x9e3779b97f4a7c15L;
+	private static final AtomicLong SEEDER = new AtomicLong(mix64(System.currentTimeMillis()) ^ mix64(System.nanoTime()));
+	private long seed;										//state, advanced by gamma on every draw
+	private long gamma;										//odd increment of this stream
+
+	/* Instantiates a generator with a seed and gamma different for every instance, as SplittableRandom() does.
+	 * A shared gamma would make consecutive instances the same stream, two draws apart.
+	 *
+	 */
+	public SplitMix64() {
+		long s = SEEDER.getAndAdd(2 * GOLDEN_GAMMA);
+
+		seed = mix64(s);
+		gamma = mixGamma(s + GOLDEN_GAMMA);
+	}
+
+	/* Instantiates a generator from a seed.
+	 *
+	 * @param: the seed
+	 */
+	public SplitMix64(long seed) {
+		this(seed, GOLDEN_GAMMA);
+	}
+
+	/* Instantiates a generator from a saved state.
+	 *
+	 * @param: the seed
+	 * @param: the gamma, must be odd
+	 */
+	public SplitMix64(long seed, long gamma) {
+		this.seed = seed;
+		this.gamma = gamma;
+	}
+
+	/* Gets the next 64 random bits.
+	 *
+	 * @return: random long
+	 */
+	public long nextLong() {
+		return mix64(seed += gamma);
+	}
+
+	/* Creates an independent generator, as SplittableRandom.split does.
+	 *
+	 * @return: a new generator
+	 */
+	public RandomSource split() {
+		return new SplitMix64(nextLong(), mixGamma(seed += gamma));
+	}
+
+	/* Gets the seed of the state.
+	 *
+	 * @return: the seed
+	 */
+	public long getSeed() {
+		return seed;
+	}
+
+	/* Gets the gamma of the state.
+	 *
+	 * @return: the gamma
+	 */
+	public long getGamma() {
+		return gamma;
+	}
+
+	/* Scrambles the bits of a long.
+	 *
+	 * @param: value to scramble
+	 * @return: scrambled value
+	 */
+	private static long mix64(long z) {
+		z = (z ^ (z >>> 30)) * 0xbf58476d1ce4e5b9L;
+		z = (z ^ (z >>> 27)) * 0x94d049bb133111ebL;
+		return z ^ (z >>> 31);
+	}
+
+	/* Derives the gamma of a split generator, odd and with enough bit transitions.
+	 *
+	 * @param: value to derive from
+	 * @return: the gamma
+	 */
+	private static long mixGamma(long z) {
+		z = (z ^ (z >>> 33)) * 0xff51afd7ed558ccdL;
+		z = (z ^ (z >>> 33)) * 0xc4ceb9fe1a85ec53L;
+		z = (z ^ (z >>> 33)) | 1L;
+		return (Long.bitCount(z ^ (z >>> 1)) < 24) ? z ^ 0xaaaaaaaaaaaaaaaaL : z;
+	}
+}
@@ -0,0 +1,540 @@
+/* SweepRunner.java
+ *
+ * Runs GeneticAlgorithm.java over a grid of parameters, replacing the hand written sweeps of TesterGA.java
+ * Every combination of the parameter values is a cell. Cells run concurrently, one per thread, each with
+ * its own GA and a random stream seeded from the sweep seed and the cell, so a cell gives the same result
+ * whatever else runs beside it. Cells with inconsistent values, such as more minimum than maximum parents,
+ * are left out of the grid. A summary row per finished cell is appended to a JSON lines file and then to
+ * a CSV file, a cell whose GA threw gets a row with the error instead of stopping the sweep.
+ * The CSV file is also the checkpoint: cells already in it are skipped, so a killed sweep resumes.
+ * On resume a line cut short is trimmed from both files and JSON lines of cells missing from the CSV are dropped.
+ * Usage: java SweepRunner [results prefix]
+ *
+ * @version: 1.3
+ */
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileReader;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+public class SweepRunner {
+	/* Names of the swept parameters, as written in the TesterGA log. */
+	public static final String[] PARAMETERS = {
+		"MAX_LENGTH", "STARTING_POPULATION", "MAX_EPOCHS", "MATING_PROBABILITY", "MUTATION_RATE",
+		"MIN_SELECTED_PARENTS", "MAX_SELECTED_PARENTS", "OFFSPRING_PER_GENERATION", "MINIMUM_SHUFFLES", "MAXIMUM_SHUFFLES"
+	};
+	private static final String[] RESULTS = {
+		"runs", "solved", "success_rate", "mean_epoch", "mean_runtime_ns", "median_runtime_ns", "cell_runtime_ns", "error"
+	};
+
+	private LinkedHashMap<String, double[]> grid;	//values of each parameter, in PARAMETERS order
+	private int RUNS;								//runs per cell
+	private int threads;
+	private long seed;
+	private boolean quiet;
+
+	/* Summary of the runs of one cell.
+	 *
+	 */
+	static class CellResult {
+		double[] values;
+		int runs;
+		int solved;
+		long epochs;								//sum over the solved runs
+		long[] runtimes;
+		long cellRuntime;
+		String error;								//exception the GA threw, null if every run finished
+	}
+
+	/* Instantiates the sweep with the default GA parameters as a grid of one cell.
+	 *
+	 */
+	public SweepRunner() {
+		GeneticAlgorithm defaults = new GeneticAlgorithm(8);
+
+		grid = new LinkedHashMap<String, double[]>();
+		setValues("MAX_LENGTH", defaults.getMaxLength());
+		setValues("STARTING_POPULATION", defaults.getStartSize());
+		setValues("MAX_EPOCHS", defaults.getMaxEpoch());
+		setValues("MATING_PROBABILITY", defaults.getMatingProb());
+		setValues("MUTATION_RATE", defaults.getMutationRate());
+		setValues("MIN_SELECTED_PARENTS", defaults.getMinSelect());
+		setValues("MAX_SELECTED_PARENTS", defaults.getMaxSelect());
+		setValues("OFFSPRING_PER_GENERATION", defaults.getOffspring());
+		setValues("MINIMUM_SHUFFLES", defaults.getShuffleMin());
+		setValues("MAXIMUM_SHUFFLES", defaults.getShuffleMax());
+		RUNS = 20;
+		threads = Runtime.getRuntime().availableProcessors();
+		seed = 0;
+		quiet = false;
+	}
+
+	/* Sets the values a parameter takes in the grid.
+	 *
+	 * @param: name of the parameter, one of PARAMETERS
+	 * @param: its values
+	 */
+	public void setValues(String parameter, double... values) {
+		if(!Arrays.asList(PARAMETERS).contains(parameter)) {
+			throw new IllegalArgumentException("Unknown parameter: " + parameter);
+		}
+		if(values.length == 0) {
+			throw new IllegalArgumentException("No values for " + parameter);
+		}
+		grid.put(parameter, values.clone());
+	}
+
+	/* Lists every valid combination of the parameter values.
+	 *
+	 * @return: the cells, each holding one value per parameter in PARAMETERS order
+	 */
+	public ArrayList<double[]> cells() {
+		ArrayList<double[]> cells = new ArrayList<double[]>();
+		int[] choice = new int[PARAMETERS.length];
+		double[] cell = null;
+		int p = 0;
+
+		while(true) {
+			cell = new double[PARAMETERS.length];
+			for(int i = 0; i < PARAMETERS.length; i++) {
+				cell[i] = grid.get(PARAMETERS[i])[choice[i]];
+			}
+			if(isValid(cell)) {
+				cells.add(cell);
+			}
+
+			for(p = PARAMETERS.length - 1; p >= 0; p--) {					//next combination, last parameter fastest
+				if(++choice[p] < grid.get(PARAMETERS[p]).length) {
+					break;
+				}
+				choice[p] = 0;
+			}
+			if(p < 0) {
+				return cells;
+			}
+		}
+	}
+
+	/* Checks whether the GA can run with the values of a cell.
+	 *
+	 * @param: parameter values of the cell
+	 * @return: true if every value is in range and every minimum is at most its maximum
+	 */
+	public boolean isValid(double[] cell) {
+		for(double value: cell) {
+			if(!(value >= 0)) {												//also rejects NaN
+				return false;
+			}
+		}
+		return cell[0] >= 2													//MAX_LENGTH, a queen needs another row to move to
+				&& cell[1] >= 2												//STARTING_POPULATION
+				&& cell[3] <= 1 && cell[4] <= 1								//MATING_PROBABILITY, MUTATION_RATE
+				&& cell[5] <= cell[6]										//MIN_SELECTED_PARENTS, MAX_SELECTED_PARENTS
+				&& cell[8] <= cell[9];										//MINIMUM_SHUFFLES, MAXIMUM_SHUFFLES
+	}
+
+	/* Runs every cell not yet in the results and appends their summaries.
+	 *
+	 * @param: prefix of the result files, prefix.csv and prefix.jsonl are written
+	 * @return: number of cells run
+	 */
+	public int run(String prefix) throws IOException {
+		File csvFile = new File(prefix + ".csv");
+		File jsonFile = new File(prefix + ".jsonl");
+		HashSet<String> finished = null;
+		ArrayList<double[]> cells = cells();
+		ExecutorService executor = null;
+		ExecutorCompletionService<CellResult> completion = null;
+		BufferedWriter csv = null;
+		BufferedWriter json = null;
+		int submitted = 0;
+		long combinations = 1;
+
+		for(double[] values: grid.values()) {
+			combinations *= values.length;
+		}
+		trimCutShort(csvFile);												//drop the lines cut short by a killed sweep
+		trimCutShort(jsonFile);
+		finished = readCheckpoint(csvFile);
+		repairJson(jsonFile, finished);
+		executor = Executors.newFixedThreadPool(threads);
+		completion = new ExecutorCompletionService<CellResult>(executor);
+		csv = new BufferedWriter(new FileWriter(csvFile, true));
+		json = new BufferedWriter(new FileWriter(jsonFile, true));
+		if(csvFile.length() == 0) {
+			csv.write(header());
+			csv.newLine();
+		}
+		csv.flush();
+
+		for(int i = 0; i < cells.size(); i++) {
+			final double[] cell = cells.get(i);
+			final long cellSeed = seed * 31 + key(cell).hashCode();		//the same cell always gets the same stream
+			if(finished.contains(key(cell))) {
+				continue;
+			}
+			completion.submit(() -> runCell(cell, cellSeed));
+			submitted++;
+		}
+		print("Cells: " + cells.size() + ", invalid left out: " + (combinations - cells.size()) + ", finished before: " + (cells.size() - submitted) + ", to run: " + submitted);
+
+		try {
+			for(int i = 0; i < submitted; i++) {
+				CellResult result = completion.take().get();
+				json.write(toJson(result));									//a row is flushed as soon as its cell is done,
+				json.newLine();												//the checkpoint last so a cell in it is in both files
+				json.flush();
+				csv.write(toCsv(result));
+				csv.newLine();
+				csv.flush();
+				print("Cell " + (i + 1) + "/" + submitted + ": " + key(result.values) + " solved " + result.solved + "/" + result.runs
+						+ (result.error != null ? ", failed: " + result.error : ""));
+			}
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		} catch (ExecutionException e) {
+			throw new IOException("Cell failed", e.getCause());
+		} finally {
+			executor.shutdownNow();
+			csv.close();
+			json.close();
+		}
+		return submitted;
+	}
+
+	/* Runs the GA of one cell RUNS times.
+	 * If the GA throws, the cell stops and its summary holds the runs finished before and the error.
+	 *
+	 * @param: parameter values of the cell
+	 * @param: seed of the cell
+	 * @return: summary of the runs
+	 */
+	public CellResult runCell(double[] cell, long cellSeed) {
+		CellResult result = new CellResult();
+		long cellStart = System.nanoTime();
+		long start = 0;
+
+		result.values = cell;
+		result.runtimes = new long[RUNS];
+		try {
+			GeneticAlgorithm cellGA = createGA(cell);
+
+			cellGA.setSeed(cellSeed);
+			for(result.runs = 0; result.runs < RUNS; result.runs++) {
+				start = System.nanoTime();
+				if(cellGA.algorithm()) {
+					result.solved++;
+					result.epochs += cellGA.getEpoch();
+				}
+				result.runtimes[result.runs] = System.nanoTime() - start;
+			}
+		} catch (RuntimeException e) {
+			result.error = e.getClass().getSimpleName();
+			result.runtimes = Arrays.copyOf(result.runtimes, result.runs);
+		}
+		result.cellRuntime = System.nanoTime() - cellStart;
+		return result;
+	}
+
+	/* Creates a GA with the parameters of a cell.
+	 *
+	 * @param: parameter values of the cell
+	 * @return: a new genetic algorithm
+	 */
+	public GeneticAlgorithm createGA(double[] cell) {
+		GeneticAlgorithm cellGA = new GeneticAlgorithm((int)cell[0]);
+
+		cellGA.setStartSize((int)cell[1]);
+		cellGA.setEpoch((int)cell[2]);
+		cellGA.setMatingProb(cell[3]);
+		cellGA.setMutation(cell[4]);
+		cellGA.setSelect((int)cell[5], (int)cell[6]);
+		cellGA.setOffspring((int)cell[7]);
+		cellGA.setShuffles((int)cell[8], (int)cell[9]);
+		return cellGA;
+	}
+
+	/* Reads the cells already summarized in the CSV file. A row cut short by a killed sweep is ignored.
+	 *
+	 * @param: the CSV file
+	 * @return: keys of the finished cells
+	 */
+	private HashSet<String> readCheckpoint(File csvFile) throws IOException {
+		HashSet<String> finished = new HashSet<String>();
+		String line = null;
+		String[] columns = null;
+		double[] cell = new double[PARAMETERS.length];
+
+		if(!csvFile.exists()) {
+			return finished;
+		}
+
+		BufferedReader in = new BufferedReader(new FileReader(csvFile));
+		try {
+			line = in.readLine();
+			if(line != null && !line.equals(header())) {
+				throw new IOException("Results of another sweep layout: " + csvFile);
+			}
+			while((line = in.readLine()) != null) {
+				columns = line.split(",", -1);							//keep the empty trailing error column
+				if(columns.length != PARAMETERS.length + RESULTS.length) {
+					continue;
+				}
+				for(int i = 0; i < PARAMETERS.length; i++) {
+					cell[i] = Double.parseDouble(columns[i]);
+				}
+				finished.add(key(cell));
+			}
+		} finally {
+			in.close();
+		}
+		return finished;
+	}
+
+	/* Cuts a file after its last line break, removing a line cut short by a killed sweep.
+	 *
+	 * @param: the file
+	 */
+	private void trimCutShort(File file) throws IOException {
+		long length = file.length();
+
+		if(length == 0) {
+			return;
+		}
+		RandomAccessFile in = new RandomAccessFile(file, "rw");
+		try {
+			do {
+				in.seek(length - 1);
+			} while(in.read() != '\n' && --length > 0);
+			in.setLength(length);
+		} finally {
+			in.close();
+		}
+	}
+
+	/* Drops the JSON lines of cells missing from the CSV file, written by a sweep killed between the two files.
+	 * The file is only rewritten if there is a line to drop.
+	 *
+	 * @param: the JSON lines file
+	 * @param: keys of the cells in the CSV file
+	 */
+	private void repairJson(File jsonFile, HashSet<String> finished) throws IOException {
+		ArrayList<String> kept = new ArrayList<String>();
+		String line = null;
+		boolean dropped = false;
+
+		if(!jsonFile.exists()) {
+			return;
+		}
+
+		BufferedReader in = new BufferedReader(new FileReader(jsonFile));
+		try {
+			while((line = in.readLine()) != null) {
+				if(finished.contains(jsonKey(line))) {
+					kept.add(line);
+				} else {
+					dropped = true;
+				}
+			}
+		} finally {
+			in.close();
+		}
+
+		if(dropped) {
+			BufferedWriter out = new BufferedWriter(new FileWriter(jsonFile));
+			try {
+				for(String keptLine: kept) {
+					out.write(keptLine);
+					out.newLine();
+				}
+			} finally {
+				out.close();
+			}
+		}
+	}
+
+	/* Gets the identity of the cell of a JSON line, as written by toJson.
+	 *
+	 * @param: the JSON line
+	 * @return: comma separated values, null if the line has no value for a parameter
+	 */
+	private String jsonKey(String line) {
+		StringBuilder key = new StringBuilder();
+		int start = 0;
+		int end = 0;
+
+		for(int i = 0; i < PARAMETERS.length; i++) {
+			start = line.indexOf('"' + PARAMETERS[i] + "\":");
+			end = line.indexOf(',', start);
+			if(start < 0 || end < 0) {
+				return null;
+			}
+			if(i > 0) {
+				key.append(',');
+			}
+			key.append(line, start + PARAMETERS[i].length() + 3, end);
+		}
+		return key.toString();
+	}
+
+	/* Gets the CSV header.
+	 *
+	 * @return: parameter and result column names
+	 */
+	private String header() {
+		return String.join(",", PARAMETERS) + "," + String.join(",", RESULTS);
+	}
+
+	/* Gets the identity of a cell, its parameter values as written in the CSV file.
+	 *
+	 * @param: parameter values of the cell
+	 * @return: comma separated values
+	 */
+	private String key(double[] cell) {
+		StringBuilder key = new StringBuilder();
+
+		for(int i = 0; i < cell.length; i++) {
+			if(i > 0) {
+				key.append(',');
+			}
+			key.append(format(cell[i]));
+		}
+		return key.toString();
+	}
+
+	/* Formats a parameter value, whole numbers without a fraction.
+	 *
+	 * @param: the value
+	 * @return: the value as text
+	 */
+	private String format(double value) {
+		if(value == Math.rint(value) && Math.abs(value) < 1e15) {
+			return Long.toString((long)value);
+		}
+		return Double.toString(value);
+	}
+
+	/* Gets the result columns of a cell.
+	 *
+	 * @param: summary of the cell
+	 * @return: runs, solved, success rate, mean epoch, mean and median runtime, cell runtime, error
+	 */
+	private String[] results(CellResult result) {
+		long[] sorted = result.runtimes.clone();
+		long total = 0;
+
+		Arrays.sort(sorted);
+		for(long runtime: sorted) {
+			total += runtime;
+		}
+		return new String[] {
+			Integer.toString(result.runs),
+			Integer.toString(result.solved),
+			result.runs > 0 ? Double.toString((double)result.solved / result.runs) : "",
+			result.solved > 0 ? Double.toString((double)result.epochs / result.solved) : "",
+			Long.toString(total / Math.max(1, result.runs)),
+			Long.toString(sorted.length > 0 ? sorted[sorted.length / 2] : 0),
+			Long.toString(result.cellRuntime),
+			result.error != null ? result.error : ""
+		};
+	}
+
+	/* Converts a cell summary to a CSV row.
+	 *
+	 * @param: summary of the cell
+	 * @return: the row
+	 */
+	private String toCsv(CellResult result) {
+		return key(result.values) + "," + String.join(",", results(result));
+	}
+
+	/* Converts a cell summary to a JSON object on one line.
+	 *
+	 * @param: summary of the cell
+	 * @return: the object
+	 */
+	private String toJson(CellResult result) {
+		StringBuilder json = new StringBuilder("{");
+		String[] values = results(result);
+
+		for(int i = 0; i < PARAMETERS.length; i++) {
+			json.append('"').append(PARAMETERS[i]).append("\":").append(format(result.values[i])).append(',');
+		}
+		for(int i = 0; i < RESULTS.length; i++) {
+			json.append('"').append(RESULTS[i]).append("\":");
+			if(values[i].isEmpty()) {
+				json.append("null");
+			} else if(RESULTS[i].equals("error")) {
+				json.append('"').append(values[i]).append('"');
+			} else {
+				json.append(values[i]);
+			}
+			json.append(i + 1 < RESULTS.length ? "," : "}");
+		}
+		return json.toString();
+	}
+
+	/* Prints a line in the console unless the sweep is quiet.
+	 *
+	 * @param: the line
+	 */
+	private void print(String line) {
+		if(!quiet) {
+			System.out.println(line);
+		}
+	}
+
+	/* Sets the number of runs per cell.
+	 *
+	 * @param: runs per cell
+	 */
+	public void setRuns(int runs) {
+		RUNS = Math.max(1, runs);
+	}
+
+	/* Sets the number of cells run concurrently.
+	 *
+	 * @param: number of threads
+	 */
+	public void setThreads(int threads) {
+		this.threads = Math.max(1, threads);
+	}
+
+	/* Sets the seed the cell seeds are derived from.
+	 *
+	 * @param: the seed
+	 */
+	public void setSeed(long seed) {
+		this.seed = seed;
+	}
+
+	/* Sets whether the sweep prints its progress in the console.
+	 *
+	 * @param: true to print nothing
+	 */
+	public void setQuiet(boolean quiet) {
+		this.quiet = quiet;
+	}
+
+	public static void main(String args[]) throws IOException {
+		SweepRunner sweep = new SweepRunner();
+
+		// The sweep of TesterGA.main: board sizes, mutation rates and max epochs.
+		sweep.setValues("MAX_LENGTH", 16, 20);
+		sweep.setValues("MUTATION_RATE", 0.001, 0.005, 0.01, 0.05, 0.1);
+		sweep.setValues("MAX_EPOCHS", 1000, 5000, 10000);
+		sweep.run(args.length > 0 ? args[0] : "GA-sweep");
+	}
+}
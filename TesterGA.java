@@ -9,12 +9,50 @@
  * @version: 1.3
  */
 
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
 public class TesterGA {
 	Writer logWriter;
 	GeneticAlgorithm ga;
 	int MAX_RUN;
+	int MAX_FAIL;
 	int MAX_LENGTH;
-	long[] runtimes;
+	double MUTATION_RATE;
+	int MAX_EPOCH;
+	int LOCAL_SEARCH_MOVES;
+	int SOLUTION_TARGET;
+	boolean adaptive;
+	int threads;
+	boolean quiet;
+	ResultFile resultFile;
+	boolean binaryLog;
+	String archivePath;
+	RandomSource seedSource;
+	int WARMUP_RUNS;
+	RunStatistics runtimes;
+	RunStatistics epochs;
+	long evaluations;
+	long measuredRuntime;
+	String summaryPath;
+	GAMetrics metrics;
+
+	/* Holds the outcome of a single GA run.
+	 *
+	 */
+	static class RunResult {
+		GeneticAlgorithm ga;
+		boolean success;
+		long runtime;
+	}
 
 	/* Instantiates the TesterGA class
 	 *
@@ -22,10 +60,134 @@ public class TesterGA {
 	public TesterGA() {
 		logWriter = new Writer();
 		MAX_RUN = 50;
-		runtimes = new long[MAX_RUN];
+		MAX_FAIL = 100;
+		LOCAL_SEARCH_MOVES = 0;
+		SOLUTION_TARGET = 1;
+		adaptive = false;
+		threads = 1;
+		quiet = false;
+		resultFile = new ResultFile();
+		binaryLog = false;
+		archivePath = null;
+		seedSource = null;
+		WARMUP_RUNS = 5;
+		runtimes = new RunStatistics();
+		epochs = new RunStatistics();
+		summaryPath = "GA-summary.csv";
+		metrics = null;
+	}
+
+	/* Sets the number of GA runs executed concurrently. Each concurrent run uses its own GA instance.
+	 *
+	 * @param: number of threads, 1 to run serially
+	 */
+	public void setThreads(int threads) {
+		this.threads = Math.max(1, threads);
+	}
+
+	/* Sets the number of min-conflicts moves each offspring gets after crossover.
+	 *
+	 * @param: moves per offspring, 0 for the plain GA
+	 */
+	public void setLocalSearch(int moves) {
+		LOCAL_SEARCH_MOVES = Math.max(0, moves);
+	}
+
+	/* Sets whether the runs adapt their mutation rate, mating probability and selection pressure.
+	 * The mutation rate given to test is then where each run starts.
+	 *
+	 * @param: true for adaptive rates
+	 */
+	public void setAdaptive(boolean adaptive) {
+		this.adaptive = adaptive;
+	}
+
+	/* Sets whether the runs count and time their operators. The metrics are published over JMX
+	 * as GeneticAlgorithm:type=GAMetrics,name="TesterGA" while the tests run, and logged after each test.
+	 *
+	 * @param: true to collect the metrics
+	 */
+	public void setMetrics(boolean enabled) {
+		if(enabled && metrics == null) {
+			metrics = new GAMetrics();
+			metrics.register("TesterGA");
+		} else if(!enabled && metrics != null) {
+			metrics.unregister();
+			metrics = null;
+		}
+	}
+
+	/* Sets the number of distinct solutions each run looks for before it stops.
+	 *
+	 * @param: distinct solutions per run
+	 */
+	public void setSolutionTarget(int target) {
+		SOLUTION_TARGET = Math.max(1, target);
+	}
+
+	/* Sets whether the runs are also stored in a binary result file (.gab) next to the log.
+	 * The solution boards are then left out of the text log, ResultFile renders them on demand.
+	 *
+	 * @param: true to write the binary result file
+	 */
+	public void setBinaryLog(boolean binaryLog) {
+		this.binaryLog = binaryLog;
+	}
+
+	/* Sets a persistent solution archive. Solutions already in the archive, or symmetric to one,
+	 * are left out of the logs and the number of distinct solutions is logged after each test.
+	 *
+	 * @param: archive file name prefix, one archive is kept per n; null for none
+	 */
+	public void setArchive(String archivePath) {
+		this.archivePath = archivePath;
+	}
+
+	/* Sets the seed of the tests. Every GA gets its own random stream split from it,
+	 * so a test gives the same results for the same seed, with or without threads.
+	 *
+	 * @param: the seed
+	 */
+	public void setSeed(long seed) {
+		this.seedSource = new SplitMix64(seed);
+	}
+
+	/* Sets the number of untimed runs before each test.
+	 *
+	 * @param: warm-up runs, 0 for none
+	 */
+	public void setWarmup(int runs) {
+		WARMUP_RUNS = Math.max(0, runs);
+	}
+
+	/* Sets the file each test appends its one line summary to.
+	 *
+	 * @param: a string filename, null for no summary file
+	 */
+	public void setSummary(String filename) {
+		summaryPath = filename;
+	}
+
+	/* Sets whether the tester prints its progress in the console. The log file is written either way.
+	 *
+	 * @param: true to print nothing
+	 */
+	public void setQuiet(boolean quiet) {
+		this.quiet = quiet;
+	}
+
+	/* Prints a line in the console unless the tester is quiet.
+	 *
+	 * @param: the line
+	 */
+	public void print(String line) {
+		if(!quiet) {
+			System.out.println(line);
+		}
 	}
 
 	/* Test method accepts the N/max length, and parameters mutation rate and max epoch to set for the GA accordingly.
+	 * Runs are consumed in the order they were started so the log reads the same with or without threads.
 	 *
 	 * @param: max length/n
 	 * @param: mutation rate for GA
@@ -33,76 +195,257 @@ public class TesterGA {
 	 */
 	public void test(int maxLength, double mutationRate, int maxEpoch) {
 		MAX_LENGTH = maxLength;
-		ga = new GeneticAlgorithm(MAX_LENGTH);										//define ga here
-		ga.setMutation(mutationRate);
-		ga.setEpoch(maxEpoch);
+		MUTATION_RATE = mutationRate;
+		MAX_EPOCH = maxEpoch;
+		runtimes.reset();																//every test logs only its own runs
+		epochs.reset();
+		evaluations = 0;
+		measuredRuntime = 0;
+		ga = createGA();																//define ga here
+		warmUp();
+		if(metrics != null) {
+			metrics.reset();															//the metrics cover the timed runs
+		}
 		long testStart = System.nanoTime();
 		String filepath = "GA-N"+MAX_LENGTH+"-"+mutationRate+"-"+maxEpoch+".txt";
-		long startTime = 0;
-        long endTime = 0;
-        long totalTime = 0;
+		ExecutorService executor = null;
+		ArrayDeque<Future<RunResult>> pending = new ArrayDeque<Future<RunResult>>();
+		ArrayDeque<GeneticAlgorithm> running = new ArrayDeque<GeneticAlgorithm>();	//GAs of the pending runs, in the same order
+		RunResult result = null;
+		SolutionArchive archive = null;
+		ArrayList<Chromosome> solutions = null;
+		int newSolutions = 0;
         int fail = 0;
         int success = 0;
         
+		logWriter.open(filepath);													//stream the log while the runs complete
 		logParameters();
+		if(archivePath != null) {
+			try {
+				archive = new SolutionArchive(archivePath+"-N"+MAX_LENGTH+".gaa", MAX_LENGTH);
+			} catch (IOException e) {
+				print("Archive failed: " + e.getMessage());
+			}
+		}
+		if(binaryLog) {
+			try {
+				resultFile.open(filepath.replace(".txt", ".gab"), ga);
+			} catch (IOException e) {
+				print("Writing failed");
+				binaryLog = false;
+			}
+		}
+
+		if(threads > 1) {
+			executor = Executors.newFixedThreadPool(threads, runnable -> {
+				Thread thread = new Thread(runnable, "ga-run");
+				thread.setDaemon(true);												//abandoned runs never keep the JVM alive
+				return thread;
+			});
+		}
         
         for(int i = 0; i < MAX_RUN; ) {												//run 50 sucess to pass passing criteria
-        	startTime = System.nanoTime();
-        	if(ga.algorithm()) {
-        		endTime = System.nanoTime();
-        		totalTime = endTime - startTime;
-        		
-        		System.out.println("Done");
-        		System.out.println("run "+(i+1));
-            	System.out.println("time in nanoseconds: "+totalTime);
-            	System.out.println("Success!");
+        	if(executor == null) {
+        		result = run(seed(ga));
+        	} else {
+        		while(pending.size() < threads) {										//keep every thread busy with a fresh GA
+        			GeneticAlgorithm runGA = seed(createGA());							//seeded here so runs split in order
+        			pending.add(executor.submit(() -> run(runGA)));
+        			running.add(runGA);
+        		}
+        		running.poll();
+        		result = await(pending.poll());
+        		if(result == null) {
+        			print("Test interrupted");
+        			break;
+        		}
+        	}
+
+        	if(result.ga != null) {													//a run that threw has no GA and is counted as a failure
+        		evaluations += result.ga.getEvaluations();
+        		measuredRuntime += result.runtime;
+        	}
+        	if(result.success) {
+        		print("Done");
+        		print("run "+(i+1));
+            	print("time in nanoseconds: "+result.runtime);
+            	print("Success!");
             	
-            	runtimes[i] = totalTime;
+            	runtimes.record(result.runtime);
+            	epochs.record(result.ga.getEpoch());
             	i++;
             	success++;
             	
             	//write to log
             	logWriter.add((String)("Run: "+i));
-            	logWriter.add((String)("Runtime in nanoseconds: "+totalTime));
-            	logWriter.add((String)("Found at epoch: "+ga.getEpoch()));
-            	logWriter.add((String)("Population size: "+ga.getPopSize()));
+            	logWriter.add((String)("Runtime in nanoseconds: "+result.runtime));
+            	logWriter.add((String)("Found at epoch: "+result.ga.getEpoch()));
+            	logWriter.add((String)("Population size: "+result.ga.getPopSize()));
             	logWriter.add("");
             	
-            	for(Chromosome c: ga.getSolutions()) {								//write solutions to log file
-					logWriter.add(c);
-					logWriter.add("");
-    			}
+            	solutions = result.ga.getSolutions();
+            	if(archive != null) {													//only log solutions the archive has not seen
+            		solutions = new ArrayList<Chromosome>();
+            		for(Chromosome c: result.ga.getSolutions()) {
+            			try {
+            				if(archive.add(c)) {
+            					solutions.add(c);
+            				}
+            			} catch (IOException e) {
+            				print("Archive failed: " + e.getMessage());
+            			}
+            		}
+            		newSolutions += solutions.size();
+            	}
+
+            	if(binaryLog) {
+            		try {
+            			resultFile.addRun(i, result.runtime, result.ga.getEpoch(), result.ga.getPopSize(), solutions);
+            		} catch (IOException e) {
+            			print("Writing failed");
+            		}
+            	} else {
+            		for(Chromosome c: solutions) {										//write solutions to log file
+						logWriter.add(c);
+						logWriter.add("");
+    				}
+            	}
         	} else {																//count failures for failing criteria
         		fail++;
-        		System.out.println("Fail!");
+        		print("Fail!");
         	}
         	
-        	if(fail >= 100) {
-        		System.out.println("Cannot find solution with these params");
+        	if(fail >= MAX_FAIL) {
+        		print("Cannot find solution with these params");
         		break;
         	}
-        	startTime = 0;															//reset time
-        	endTime = 0;
-        	totalTime = 0;
         }
+
+		if(executor != null) {														//runs started past the pass/fail point are discarded
+			for(GeneticAlgorithm runGA: running) {									//the runs never check for interrupts, they stop at their next epoch
+				runGA.cancel();
+			}
+			executor.shutdownNow();
+		}
 	
-        System.out.println("Number of Success: " +success);
-        System.out.println("Number of failures: "+fail);
+        print("Number of Success: " +success);
+        print("Number of failures: "+fail);
+        if(archive != null) {
+        	logWriter.add("New distinct solutions: "+newSolutions);
+        	logWriter.add("Distinct solutions in archive: "+archive.size());
+        	logWriter.add("");
+        	try {
+        		archive.close();
+        	} catch (IOException e) {
+        		print("Archive failed: " + e.getMessage());
+        	}
+        }
         logWriter.add("Runtime summary");
         logWriter.add("");
-        
-		for(int x = 0; x < runtimes.length; x++){									//print runtime summary
-			logWriter.add(Long.toString(runtimes[x]));
-		}
+        for(String line: summary(fail)) {
+        	logWriter.add(line);
+        }
+        logWriter.add("");
+        if(metrics != null) {
+        	logWriter.add("Operator metrics");
+        	logWriter.add("");
+        	for(String line: metrics.getSummary().split(System.lineSeparator())) {
+        		logWriter.add(line);
+        	}
+        	logWriter.add("");
+        }
 		
 		long testEnd = System.nanoTime();
 		logWriter.add(Long.toString(testStart));
 		logWriter.add(Long.toString(testEnd));
 		logWriter.add(Long.toString(testEnd - testStart));
+		if(binaryLog) {
+			try {
+				resultFile.close(testStart, testEnd);
+			} catch (IOException e) {
+				print("Writing failed");
+			}
+		}
 		
       
        	logWriter.writeFile(filepath);
-       	printRuntimes();
+       	exportSummary(fail);
+       	printRuntimes(fail);
+	}
+
+	/* Runs the GA a few times before a test so the timed runs do not include JIT compilation.
+	 * Warm-up runs use their own random numbers and are not logged.
+	 *
+	 */
+	public void warmUp() {
+		for(int i = 0; i < WARMUP_RUNS; i++) {
+			createGA().algorithm();
+		}
+	}
+
+	/* Creates a GA with the parameters of the current test.
+	 *
+	 * @return: a new genetic algorithm
+	 */
+	public GeneticAlgorithm createGA() {
+		GeneticAlgorithm newGA = new GeneticAlgorithm(MAX_LENGTH);
+		newGA.setMutation(MUTATION_RATE);
+		newGA.setEpoch(MAX_EPOCH);
+		newGA.setLocalSearch(LOCAL_SEARCH_MOVES);
+		newGA.setSolutionTarget(SOLUTION_TARGET);
+		newGA.setAdaptive(adaptive);
+		newGA.setMetrics(metrics);
+		return newGA;
+	}
+
+	/* Gives a GA the random stream of the next run when the test is seeded.
+	 *
+	 * @param: the genetic algorithm to run next
+	 * @return: the same genetic algorithm
+	 */
+	public GeneticAlgorithm seed(GeneticAlgorithm runGA) {
+		if(seedSource != null) {
+			runGA.setRandomSource(seedSource.split());
+		}
+		return runGA;
+	}
+
+	/* Runs the GA once and times it.
+	 *
+	 * @param: the genetic algorithm to run
+	 * @return: the result of the run
+	 */
+	public RunResult run(GeneticAlgorithm runGA) {
+		RunResult result = new RunResult();
+		long startTime = System.nanoTime();
+
+		result.success = runGA.algorithm();
+		result.runtime = System.nanoTime() - startTime;
+		result.ga = runGA;
+		return result;
+	}
+
+	/* Waits for a concurrent run to finish. A run that threw is counted as a failure.
+	 *
+	 * @param: the pending run
+	 * @return: the result of the run, null if the test thread was interrupted
+	 */
+	public RunResult await(Future<RunResult> future) {
+		RunResult result = null;
+
+		try {
+			result = future.get();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			return null;
+		} catch (ExecutionException e) {
+			print("Run failed: " + e.getCause());
+		}
+
+		if(result == null) {
+			result = new RunResult();
+		}
+		return result;
 	}
 
 	/* Converts the parameters of GA to string and adds it to the string list in the writer class
@@ -121,20 +464,95 @@ public class TesterGA {
         logWriter.add((String)("OFFSPRING_PER_GENERATION: "+ga.getOffspring()));
         logWriter.add((String)("MINIMUM_SHUFFLES: "+ga.getShuffleMin()));
         logWriter.add((String)("MAXIMUM_SHUFFLES: "+ga.getShuffleMax()));
+        if(ga.getMaxPopulation() > 0) {
+        	logWriter.add("MAX_POPULATION: "+ga.getMaxPopulation());
+        	logWriter.add("REPLACEMENT: "+ga.getReplacement());
+        }
+        if(ga.isAdaptive()) {
+        	logWriter.add("ADAPTIVE: true");
+        }
+        if(ga.getSolutionTarget() > 1) {
+        	logWriter.add("SOLUTION_TARGET: "+ga.getSolutionTarget());
+        }
+        if(ga.getLocalSearch() > 0) {
+        	logWriter.add("LOCAL_SEARCH_MOVES: "+ga.getLocalSearch());
+        }
         logWriter.add("");
 	}
 
 	/* Prints the runtime summary in the console
 	 *
+	 * @param: number of failed runs
+	 */
+	public void printRuntimes(int fail) {
+		for(String line: summary(fail)) {
+			print(line);
+		}
+	}
+
+	/* Summarizes the timed runs of the test: percentiles of the runtime and epochs of the solved runs,
+	 * and chromosomes evaluated per second over all runs.
+	 *
+	 * @param: number of failed runs
+	 * @return: the summary lines
+	 */
+	public ArrayList<String> summary(int fail) {
+		ArrayList<String> lines = new ArrayList<String>();
+
+		lines.add("Solved runs: "+runtimes.getCount());
+		lines.add("Failed runs: "+fail);
+		lines.add("Warm-up runs: "+WARMUP_RUNS);
+		lines.add("Runtime in nanoseconds p50/p90/p99/max: "+runtimes.getPercentile(50)+" / "+runtimes.getPercentile(90)
+				+" / "+runtimes.getPercentile(99)+" / "+runtimes.getMax());
+		lines.add("Mean runtime in nanoseconds: "+Math.round(runtimes.getMean()));
+		lines.add("Epochs to solution p50/p90/p99/max: "+epochs.getPercentile(50)+" / "+epochs.getPercentile(90)
+				+" / "+epochs.getPercentile(99)+" / "+epochs.getMax());
+		lines.add("Evaluations per second: "+Math.round(evaluationsPerSecond()));
+		return lines;
+	}
+
+	/* Gets the chromosomes evaluated per second of GA runtime over all timed runs.
+	 *
+	 * @return: evaluations per second
 	 */
-	public void printRuntimes() {
-		for(long x: runtimes){
-			System.out.println("run with time "+x+" nanoseconds");
-		}	
+	public double evaluationsPerSecond() {
+		return measuredRuntime == 0 ? 0.0 : evaluations * 1e9 / measuredRuntime;
+	}
+
+	/* Appends a one line summary of the test to the summary file, so tests and revisions can be compared.
+	 *
+	 * @param: number of failed runs
+	 */
+	public void exportSummary(int fail) {
+		File file = null;
+		boolean exists = false;
+
+		if(summaryPath == null) {
+			return;
+		}
+		file = new File(summaryPath);
+		exists = file.length() > 0;
+		try {
+			BufferedWriter bw = new BufferedWriter(new FileWriter(file, true));
+			if(!exists) {
+				bw.write("n,mutation_rate,max_epoch,solved,failed,warmup,runtime_p50_ns,runtime_p90_ns,runtime_p99_ns,runtime_max_ns,"
+						+ "runtime_mean_ns,epoch_p50,epoch_p90,epoch_p99,epoch_max,evaluations_per_second");
+				bw.newLine();
+			}
+			bw.write(MAX_LENGTH+","+MUTATION_RATE+","+MAX_EPOCH+","+runtimes.getCount()+","+fail+","+WARMUP_RUNS+","
+					+runtimes.getPercentile(50)+","+runtimes.getPercentile(90)+","+runtimes.getPercentile(99)+","+runtimes.getMax()+","
+					+Math.round(runtimes.getMean())+","+epochs.getPercentile(50)+","+epochs.getPercentile(90)+","
+					+epochs.getPercentile(99)+","+epochs.getMax()+","+Math.round(evaluationsPerSecond()));
+			bw.newLine();
+			bw.close();
+		} catch (IOException e) {
+			print("Writing failed");
+		}
 	}
 
 	public static void main(String args[]) {
 		TesterGA tester = new TesterGA();
+		tester.setThreads(Runtime.getRuntime().availableProcessors());
 
 		tester.test(4, 0.001, 1000);
 /*		tester.test(8, 0.001, 1000);
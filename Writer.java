@@ -1,6 +1,10 @@
 /* Writer.java
  *
- * Class that contains a string list to be written in a log file.
+ * Class that writes the lines of a log file.
+ * Once a file is opened, lines are streamed to it by a background thread through a bounded queue
+ * and flushed every FLUSH_LINES lines or FLUSH_MILLIS milliseconds, whichever comes first, and on close,
+ * so the log does not grow in memory and the caller does not wait for the disk.
+ * Without an open file, lines are kept in a string list until writeFile is called.
  *
  * @author: James M. Bayon-on
  * @version: 1.3
@@ -10,42 +14,202 @@ import java.io.BufferedWriter;
 import java.io.FileWriter;
 import java.io.IOException;
 import java.util.ArrayList;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.TimeUnit;
 
 public class Writer {
+	private static final String END = new String("END");	//queued by close, compared by identity
 	private ArrayList<String> list;
-	
+	private ArrayBlockingQueue<String> queue;				//lines waiting for the background thread
+	private Thread writerThread;
+	private int QUEUE_SIZE;									//lines the queue holds before add waits
+	private int BATCH_SIZE;									//most lines taken from the queue at once
+	private int FLUSH_LINES;								//lines written before a flush
+	private long FLUSH_MILLIS;								//longest time a written line waits for a flush
+
 	/* Instantiates the writer class.
 	 *
 	 */
 	public Writer() {
 		list = new ArrayList<String>();
+		QUEUE_SIZE = 4096;
+		BATCH_SIZE = 1024;
+		FLUSH_LINES = 1024;
+		FLUSH_MILLIS = 1000;
+		queue = new ArrayBlockingQueue<String>(QUEUE_SIZE);
+		writerThread = null;
+	}
+
+	/* Opens a log file and starts streaming the lines added from now on into it.
+	 *
+	 * @param: a string filename
+	 */
+	public void open(String filename) {
+		BufferedWriter bw = null;
+
+		close();
+		try {
+			bw = new BufferedWriter(new FileWriter(filename), 1 << 16);
+		} catch (IOException e) {
+			System.out.println("Writing failed");
+			return;
+		}
+
+		final BufferedWriter out = bw;
+		writerThread = new Thread(() -> stream(out), "log-writer");
+		writerThread.start();
+	}
+
+	/* Writes the queued lines into the file until the writer is closed.
+	 *
+	 * @param: the open file
+	 */
+	private void stream(BufferedWriter bw) {
+		ArrayList<String> batch = new ArrayList<String>(BATCH_SIZE);
+		long flushNanos = TimeUnit.MILLISECONDS.toNanos(FLUSH_MILLIS);
+		long pendingSince = 0;									//when the oldest unflushed line was written
+		int unflushed = 0;										//lines written since the last flush
+		String first = null;
+		boolean done = false;
+		boolean failed = false;
+
+		while(!done) {
+			batch.clear();
+			try {
+				if(unflushed == 0) {
+					first = queue.take();
+				} else {										//wake up in time to flush the written lines
+					first = queue.poll(pendingSince + flushNanos - System.nanoTime(), TimeUnit.NANOSECONDS);
+				}
+			} catch (InterruptedException e) {
+				break;
+			}
+			if(first != null) {
+				batch.add(first);
+				queue.drainTo(batch, BATCH_SIZE - 1);
+			}
+			if(unflushed == 0) {
+				pendingSince = System.nanoTime();
+			}
+
+			for(String line: batch) {
+				if(line == END) {
+					done = true;
+				} else if(!failed) {
+					try {
+						bw.write(line);
+						bw.newLine();
+						unflushed++;
+					} catch (IOException e) {
+						failed = true;
+					}
+				}
+			}
+
+			if(!failed && !done && unflushed > 0
+					&& (unflushed >= FLUSH_LINES || System.nanoTime() - pendingSince >= flushNanos)) {
+				try {
+					bw.flush();
+				} catch (IOException e) {
+					failed = true;
+				}
+				unflushed = 0;
+			}
+		}
+
+		try {
+			bw.close();
+		} catch (IOException e) {
+			failed = true;
+		}
+		if(failed) {
+			System.out.println("Writing failed");
+		}
+	}
+
+	/* Writes the remaining lines and closes the open log file, if any.
+	 *
+	 */
+	public void close() {
+		if(writerThread == null) {
+			return;
+		}
+		boolean interrupted = false;
+
+		put(END);
+		while(writerThread.isAlive()) {						//an interrupted caller still waits, so no line is lost
+			try {
+				writerThread.join();
+			} catch (InterruptedException e) {
+				interrupted = true;
+			}
+		}
+		writerThread = null;
+		if(interrupted) {
+			Thread.currentThread().interrupt();
+		}
+	}
+
+	/* Queues a line for the background thread, waiting for room even if the caller is interrupted.
+	 * The interrupt is kept for the caller.
+	 *
+	 * @param: the line
+	 */
+	private void put(String line) {
+		boolean interrupted = false;
+
+		while(true) {
+			try {
+				queue.put(line);
+				break;
+			} catch (InterruptedException e) {
+				interrupted = true;
+			}
+		}
+		if(interrupted) {
+			Thread.currentThread().interrupt();
+		}
+	}
+
+	/* Sets when the streamed lines are flushed to the file. Takes effect from the next open.
+	 *
+	 * @param: lines written before a flush
+	 * @param: milliseconds a written line may wait for a flush
+	 */
+	public void setFlush(int lines, long millis) {
+		FLUSH_LINES = Math.max(1, lines);
+		FLUSH_MILLIS = Math.max(1, millis);
 	}
 
-	/* Accepts a string to add to the string list in the writer class.
+	/* Accepts a string to add to the log.
 	 *
 	 * @param: a line string to write into the log
 	 */
 	public void add(String line) {
-		list.add(line);
+		if(writerThread == null) {
+			list.add(line);
+			return;
+		}
+		put(line);
 	}
-	
-	/* Accepts a chromosome and converts the content solution into strings then adds it to the string list.
+
+	/* Accepts a chromosome and converts the content solution into strings then adds it to the log.
 	 *
 	 * @param: a chromosome to write into the log
 	 */
 	public void add(Chromosome c) {
 		int n = c.getMaxLength();
-		String board[][] = new String[n][n];
+		StringBuilder temp = new StringBuilder(2 * n);
 
-		clearBoard(board, n);
-
-		for(int x = 0; x < n; x++) {
-			board[x][c.getGene(x)] = "Q";
+		for(int y = 0; y < n; y++) {
+			temp.setLength(0);
+			for(int x = 0; x < n; x++) {
+				temp.append(c.getGene(x) == y ? "Q " : ". ");
+			}
+			add(temp.toString());
 		}
-
-		printBoard(board, n);
 	}
-	
+
 	/* Clears a 2D string board with empty string.
 	 *
 	 * @param: a 2D string board
@@ -59,7 +223,7 @@ public class Writer {
 			}
 		}
 	}
-	
+
 	/* Replaces the position of the queens with Q in the string board and a dot for indexes with no queens.
 	 *
 	 * @param: a 2D string board
@@ -67,38 +231,44 @@ public class Writer {
 	 */
 	public void printBoard(String[][] board, int n) {
 		// Display the board.
+		StringBuilder temp = new StringBuilder(2 * n);
+
 		for(int y = 0; y < n; y++) {
-			String temp = "";
+			temp.setLength(0);
 			for(int x = 0; x < n; x++) {
 				if(board[x][y] == "Q") {
-					temp += "Q ";
+					temp.append("Q ");
 				} else {
-					temp += ". ";
+					temp.append(". ");
 				}
 			}
-			list.add(temp);
+			add(temp.toString());
 		}
 	}
-	
-	/* Writes the string list into a log file.
+
+	/* Writes the log file. A streamed file is closed, otherwise the string list is written into a new file.
 	 *
-	 * @param: a string filename
+	 * @param: a string filename, used when no file was opened
 	 */
 	public void writeFile(String filename) {
+		if(writerThread != null) {
+			close();
+			return;
+		}
+
 		try{
         	FileWriter fw = new FileWriter(filename);
 			BufferedWriter bw = new BufferedWriter(fw);
-		
+
 			for(int i = 0; i < list.size(); i++) {
 				bw.write(list.get(i));
 				bw.newLine();
-				bw.flush();
 			}
 
 			bw.close();
         } catch (IOException e) {
         	System.out.println("Writing failed");
         }
-		
+		list.clear();
 	}
 }
@@ -0,0 +1,219 @@
+/* OperatorBenchmark.java
+ *
+ * JMH benchmarks of the GA operators and full runs, the forked and blackholed counterpart of BenchmarkGA.java.
+ * JMH needs benchmarks outside the default package while the GA classes are in it, so the GA is called
+ * through method handles. The handles are static final and adapted to Object, so the JIT inlines them.
+ * Build and run with: mvn -B -P jmh package && java -jar target/benchmarks.jar
+ *
+ * @version: 1.3
+ */
+
+package benchmarks;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class OperatorBenchmark {
+	private static final MethodHandle NEW_GA;			//new GeneticAlgorithm(int)
+	private static final MethodHandle NEW_COMPACT_GA;	//new CompactGeneticAlgorithm(int, int)
+	private static final MethodHandle NEW_EVALUATOR;	//new BitboardEvaluator(int)
+	private static final MethodHandle START;
+	private static final MethodHandle SET_EPOCH;
+	private static final MethodHandle SET_SOLUTION_TARGET;
+	private static final MethodHandle SET_COMPACT_EPOCH;
+	private static final MethodHandle ALGORITHM;
+	private static final MethodHandle COMPACT_ALGORITHM;
+	private static final MethodHandle CROSSOVER;
+	private static final MethodHandle MUTATION;
+	private static final MethodHandle FITNESS;
+	private static final MethodHandle GET_POP_SIZE;
+	private static final MethodHandle SELECTION;
+	private static final MethodHandle SELECTED_COUNT;
+	private static final MethodHandle PREP_NEXT_EPOCH;
+	private static final MethodHandle GET_FITTEST;
+	private static final MethodHandle COMPUTE_CONFLICTS;
+	private static final MethodHandle GET_CONFLICTS;
+	private static final MethodHandle GET_GENE;
+	private static final MethodHandle BITBOARD_CONFLICTS;
+
+	static {
+		try {
+			MethodHandles.Lookup lookup = MethodHandles.publicLookup();
+			Class<?> ga = Class.forName("GeneticAlgorithm");
+			Class<?> compact = Class.forName("CompactGeneticAlgorithm");
+			Class<?> chromosome = Class.forName("Chromosome");
+			Class<?> evaluator = Class.forName("BitboardEvaluator");
+
+			NEW_GA = generic(lookup.findConstructor(ga, MethodType.methodType(void.class, int.class)));
+			NEW_COMPACT_GA = generic(lookup.findConstructor(compact, MethodType.methodType(void.class, int.class, int.class)));
+			NEW_EVALUATOR = generic(lookup.findConstructor(evaluator, MethodType.methodType(void.class, int.class)));
+			START = generic(lookup.findVirtual(ga, "start", MethodType.methodType(void.class)));
+			SET_EPOCH = generic(lookup.findVirtual(ga, "setEpoch", MethodType.methodType(void.class, int.class)));
+			SET_SOLUTION_TARGET = generic(lookup.findVirtual(ga, "setSolutionTarget", MethodType.methodType(void.class, int.class)));
+			SET_COMPACT_EPOCH = generic(lookup.findVirtual(compact, "setEpoch", MethodType.methodType(void.class, int.class)));
+			ALGORITHM = generic(lookup.findVirtual(ga, "algorithm", MethodType.methodType(boolean.class)));
+			COMPACT_ALGORITHM = generic(lookup.findVirtual(compact, "algorithm", MethodType.methodType(boolean.class)));
+			CROSSOVER = generic(lookup.findVirtual(ga, "partiallyMappedCrossover",
+					MethodType.methodType(void.class, int.class, int.class, int.class, int.class)));
+			MUTATION = generic(lookup.findVirtual(ga, "exchangeMutation", MethodType.methodType(void.class, int.class, int.class)));
+			FITNESS = generic(lookup.findVirtual(ga, "getFitness", MethodType.methodType(void.class)));
+			GET_POP_SIZE = generic(lookup.findVirtual(ga, "getPopSize", MethodType.methodType(int.class)));
+			SELECTION = generic(lookup.findVirtual(ga, "rouletteSelection", MethodType.methodType(void.class)));
+			SELECTED_COUNT = generic(lookup.findVirtual(ga, "getSelectedCount", MethodType.methodType(int.class)));
+			PREP_NEXT_EPOCH = generic(lookup.findVirtual(ga, "prepNextEpoch", MethodType.methodType(void.class)));
+			GET_FITTEST = generic(lookup.findVirtual(ga, "getFittest", MethodType.methodType(java.util.ArrayList.class, int.class)));
+			COMPUTE_CONFLICTS = generic(lookup.findVirtual(chromosome, "computeConflicts", MethodType.methodType(void.class)));
+			GET_CONFLICTS = generic(lookup.findVirtual(chromosome, "getConflicts", MethodType.methodType(int.class)));
+			GET_GENE = generic(lookup.findVirtual(chromosome, "getGene", MethodType.methodType(int.class, int.class)));
+			BITBOARD_CONFLICTS = generic(lookup.findVirtual(evaluator, "conflicts",
+					MethodType.methodType(int.class, int[].class, int.class)));
+		} catch (ReflectiveOperationException e) {
+			throw new ExceptionInInitializerError(e);
+		}
+	}
+
+	@Param({"8", "64", "256", "1024"})
+	int n;
+
+	@Param({"100"})
+	int runEpochs;
+
+	Object ga;							//GA whose population the operators work on
+	Object runGA;						//GA of the full runs
+	Object compactGA;
+	Object chromosome;
+	Object evaluator;
+	int[] genes;
+
+	/* Changes the receiver of a handle to Object, the GA classes cannot be named from this package.
+	 *
+	 * @param: method handle
+	 * @return: the handle with an Object receiver
+	 */
+	private static MethodHandle generic(MethodHandle handle) {
+		MethodType type = handle.type();
+
+		if(type.parameterCount() > 0 && !type.parameterType(0).isPrimitive() && type.parameterType(0) != int[].class) {
+			type = type.changeParameterType(0, Object.class);
+		}
+		if(!type.returnType().isPrimitive()) {
+			type = type.changeReturnType(Object.class);
+		}
+		return handle.asType(type);
+	}
+
+	@Setup(Level.Trial)
+	public void setup() throws Throwable {
+		ga = (Object)NEW_GA.invokeExact(n);
+		SET_SOLUTION_TARGET.invokeExact(ga, Integer.MAX_VALUE);		//a solution found while initializing would stop with a partial population
+		START.invokeExact(ga);
+		runGA = (Object)NEW_GA.invokeExact(n);
+		SET_EPOCH.invokeExact(runGA, runEpochs);
+		compactGA = (Object)NEW_COMPACT_GA.invokeExact(n, 100);
+		SET_COMPACT_EPOCH.invokeExact(compactGA, runEpochs);
+		chromosome = ((java.util.ArrayList<?>)(Object)GET_FITTEST.invokeExact(ga, 1)).get(0);
+		evaluator = (Object)NEW_EVALUATOR.invokeExact(n);
+		genes = new int[n];
+		for(int i = 0; i < n; i++) {
+			genes[i] = (int)GET_GENE.invokeExact(chromosome, i);
+		}
+	}
+
+	/* Scores the chromosomes the operators changed, so the bookkeeping of one iteration does not carry into the next.
+	 *
+	 */
+	@Setup(Level.Iteration)
+	public void rescore() throws Throwable {
+		FITNESS.invokeExact(ga);
+	}
+
+	@Benchmark
+	public int computeConflicts() throws Throwable {
+		COMPUTE_CONFLICTS.invokeExact(chromosome);
+		return (int)GET_CONFLICTS.invokeExact(chromosome);
+	}
+
+	@Benchmark
+	public int bitboardConflicts() throws Throwable {
+		return (int)BITBOARD_CONFLICTS.invokeExact(evaluator, genes, 0);
+	}
+
+	@Benchmark
+	public void partiallyMappedCrossover() throws Throwable {
+		CROSSOVER.invokeExact(ga, 0, 1, 2, 3);
+	}
+
+	@Benchmark
+	public void exchangeMutation() throws Throwable {
+		MUTATION.invokeExact(ga, 4, 1);
+	}
+
+	/* Population with chromosomes changed before every call of getFitness, which returns at once when nothing changed.
+	 * The mutations happen in the untimed invocation setup, as the offspring of an epoch would.
+	 */
+	@State(Scope.Thread)
+	public static class DirtyPopulation {
+		static final int DIRTY = 10;		//chromosomes changed before each call
+		Object ga;
+		int size;
+		int next;
+
+		@Setup(Level.Trial)
+		public void setup(OperatorBenchmark benchmark) throws Throwable {
+			ga = benchmark.ga;
+			size = (int)GET_POP_SIZE.invokeExact(ga);
+			next = 0;
+		}
+
+		@Setup(Level.Invocation)
+		public void markDirty() throws Throwable {
+			for(int i = 0; i < DIRTY; i++) {
+				MUTATION.invokeExact(ga, next, 1);
+				next = next + 1 == size ? 0 : next + 1;
+			}
+		}
+	}
+
+	@Benchmark
+	public void getFitness(DirtyPopulation population) throws Throwable {
+		FITNESS.invokeExact(population.ga);
+	}
+
+	@Benchmark
+	public void rouletteSelection(Blackhole blackhole) throws Throwable {
+		SELECTION.invokeExact(ga);
+		blackhole.consume((int)SELECTED_COUNT.invokeExact(ga));
+		PREP_NEXT_EPOCH.invokeExact(ga);
+	}
+
+	@Benchmark
+	public boolean algorithm() throws Throwable {
+		return (boolean)ALGORITHM.invokeExact(runGA);
+	}
+
+	@Benchmark
+	public boolean compactAlgorithm() throws Throwable {
+		return (boolean)COMPACT_ALGORITHM.invokeExact(compactGA);
+	}
+}
@@ -0,0 +1,92 @@
+/* CheckpointTest.java
+ *
+ * Tests of Checkpoint.java: a run restored from a snapshot goes on taking snapshots at the same interval,
+ * and a run whose random numbers cannot be saved runs on without snapshots.
+ *
+ * @version: 1.3
+ */
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+public class CheckpointTest {
+	@TempDir
+	Path directory;
+
+	@Test
+	public void resumedRunKeepsSnapshotting() throws Exception {
+		String filename = directory.resolve("run.gac").toString();
+		GeneticAlgorithm ga = new GeneticAlgorithm(8);
+		GeneticAlgorithm restored = null;
+		Checkpoint checkpoint = new Checkpoint(filename);
+
+		ga.setSeed(7);
+		ga.setEpoch(100);
+		ga.setSolutionTarget(Integer.MAX_VALUE);					//runs every epoch
+		ga.setCheckpoint(filename, 10);
+		ga.start();
+		for(int i = 0; i < 25; i++) {
+			ga.nextEpoch();
+		}
+		checkpoint.save(ga);
+		checkpoint.close();
+
+		restored = Checkpoint.load(filename);
+		assertEquals(25, restored.getEpoch());
+		assertEquals(10, restored.getCheckpointInterval());
+
+		Files.delete(directory.resolve("run.gac"));
+		restored.resume();
+		assertTrue(Files.exists(directory.resolve("run.gac")), "resumed run took no snapshot");
+
+		restored = Checkpoint.load(filename);
+		assertTrue(restored.getEpoch() > 25 && restored.getEpoch() % 10 == 0, "snapshot at epoch " + restored.getEpoch());
+		assertEquals(10, restored.getCheckpointInterval());
+	}
+
+	@Test
+	public void snapshotWithoutIntervalIsNotRepeated() throws Exception {
+		String filename = directory.resolve("once.gac").toString();
+		GeneticAlgorithm ga = new GeneticAlgorithm(8);
+		Checkpoint checkpoint = new Checkpoint(filename);
+
+		ga.setSeed(7);
+		ga.setEpoch(50);
+		ga.start();
+		ga.nextEpoch();
+		checkpoint.save(ga);
+		checkpoint.close();
+
+		assertEquals(0, Checkpoint.load(filename).getCheckpointInterval());
+	}
+
+	@Test
+	public void customRandomSourceRunsWithoutSnapshots() throws Exception {
+		String filename = directory.resolve("custom.gac").toString();
+		GeneticAlgorithm ga = new GeneticAlgorithm(8);
+		java.util.SplittableRandom random = new java.util.SplittableRandom(7);
+
+		ga.setRandomSource(new RandomSource() {
+			public long nextLong() {
+				return random.nextLong();
+			}
+
+			public RandomSource split() {
+				return this;
+			}
+		});
+		ga.setEpoch(20);
+		ga.setSolutionTarget(Integer.MAX_VALUE);
+		ga.setCheckpoint(filename, 2);
+		ga.algorithm();
+
+		assertTrue(ga.getEpoch() >= 20, "run stopped at epoch " + ga.getEpoch());
+		assertFalse(Files.exists(directory.resolve("custom.gac")));
+	}
+}
@@ -0,0 +1,184 @@
+/* ChromosomeTest.java
+ *
+ * Tests of the incremental conflict counting of Chromosome.java against a count over every pair of queens.
+ *
+ * @version: 1.3
+ */
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import org.junit.jupiter.api.Test;
+
+public class ChromosomeTest {
+	private static final int[] SIZES = {1, 2, 5, 8, 13, 64};
+
+	/* Counts the conflicts of a chromosome from scratch, every ordered pair of queens sharing a diagonal.
+	 *
+	 * @param: the chromosome
+	 * @return: number of conflicts
+	 */
+	static int pairConflicts(Chromosome c) {
+		int n = c.getMaxLength();
+		int conflicts = 0;
+
+		for(int i = 0; i < n; i++) {
+			for(int j = 0; j < n; j++) {
+				if(i != j && Math.abs(c.getGene(i) - c.getGene(j)) == Math.abs(i - j)) {
+					conflicts++;
+				}
+			}
+		}
+		return conflicts;
+	}
+
+	/* Checks whether a queen shares a diagonal with another queen, from scratch.
+	 *
+	 * @param: the chromosome
+	 * @param: index of the queen
+	 * @return: true if the queen is in conflict
+	 */
+	static boolean pairAttacked(Chromosome c, int index) {
+		for(int j = 0; j < c.getMaxLength(); j++) {
+			if(j != index && Math.abs(c.getGene(index) - c.getGene(j)) == Math.abs(index - j)) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	/* Gets the genes of a chromosome.
+	 *
+	 * @param: the chromosome
+	 * @return: copy of the genes
+	 */
+	static int[] genes(Chromosome c) {
+		int[] genes = new int[c.getMaxLength()];
+
+		for(int i = 0; i < genes.length; i++) {
+			genes[i] = c.getGene(i);
+		}
+		return genes;
+	}
+
+	/* Checks the conflicts and attacked queens of a chromosome against a recount.
+	 *
+	 * @param: the chromosome
+	 */
+	static void assertCounted(Chromosome c) {
+		Chromosome recounted = new Chromosome(c.getMaxLength());
+
+		recounted.setGenes(genes(c));
+		assertEquals(pairConflicts(c), c.getConflicts());
+		assertEquals(recounted.getConflicts(), c.getConflicts());
+		for(int i = 0; i < c.getMaxLength(); i++) {
+			assertEquals(pairAttacked(c, i), c.isAttacked(i), "queen " + i);
+		}
+	}
+
+	/* Creates a chromosome with shuffled queens.
+	 *
+	 * @param: size of n
+	 * @param: random numbers
+	 * @return: the chromosome
+	 */
+	static Chromosome shuffled(int n, RandomSource rand) {
+		Chromosome c = new Chromosome(n);
+
+		for(int i = n - 1; i > 0; i--) {
+			c.swapGenes(i, rand.nextInt(i + 1));
+		}
+		return c;
+	}
+
+	@Test
+	public void computeConflictsCountsEveryPairOnADiagonal() {
+		SplitMix64 rand = new SplitMix64(1);
+
+		for(int n: SIZES) {
+			Chromosome c = new Chromosome(n);
+
+			assertEquals(n * (n - 1), c.getConflicts());				//every queen on the main diagonal
+			for(int trial = 0; trial < 50; trial++) {
+				c = shuffled(n, rand);
+				c.computeConflicts();
+				assertCounted(c);
+			}
+		}
+	}
+
+	@Test
+	public void setGeneAndSwapGenesKeepTheConflictsCounted() {
+		SplitMix64 rand = new SplitMix64(2);
+
+		for(int n: SIZES) {
+			Chromosome c = shuffled(n, rand);
+
+			for(int step = 0; step < 2000; step++) {
+				if(rand.nextInt(2) == 0) {
+					c.setGene(rand.nextInt(n), rand.nextInt(n));		//queens may share a column
+				} else {
+					c.swapGenes(rand.nextInt(n), rand.nextInt(n));		//including a gene with itself
+				}
+				assertCounted(c);
+			}
+		}
+	}
+
+	@Test
+	public void swapDeltaPredictsTheSwapAndChangesNothing() {
+		SplitMix64 rand = new SplitMix64(3);
+
+		for(int n: SIZES) {
+			for(int trial = 0; trial < 20; trial++) {
+				Chromosome c = shuffled(n, rand);
+				if(trial % 2 == 1) {
+					c.setGene(rand.nextInt(n), rand.nextInt(n));
+				}
+
+				for(int i = 0; i < n; i++) {
+					for(int j = 0; j < n; j++) {
+						int[] before = genes(c);
+						int conflicts = c.getConflicts();
+						int delta = c.swapDelta(i, j);
+						Chromosome swapped = new Chromosome(c);
+
+						assertArrayEquals(before, genes(c));
+						assertEquals(conflicts, c.getConflicts());
+						assertCounted(c);								//the diagonal counters were restored
+
+						swapped.swapGenes(i, j);
+						assertEquals(pairConflicts(swapped) - conflicts, delta, "swap " + i + " " + j);
+					}
+				}
+			}
+		}
+	}
+
+	@Test
+	public void copyGenesCarriesTheCounters() {
+		SplitMix64 rand = new SplitMix64(4);
+
+		for(int n: SIZES) {
+			for(int trial = 0; trial < 20; trial++) {
+				Chromosome source = shuffled(n, rand);
+				Chromosome target = new Chromosome(n, false);			//unset genes and counters, as for offspring
+
+				if(trial % 2 == 0) {
+					target = shuffled(n, rand);
+				}
+				target.copyGenes(source);
+				assertArrayEquals(genes(source), genes(target));
+				assertCounted(target);
+
+				for(int step = 0; step < 100; step++) {					//later changes start from the copied counters
+					target.swapGenes(rand.nextInt(n), rand.nextInt(n));
+					target.setGene(rand.nextInt(n), rand.nextInt(n));
+					assertCounted(target);
+				}
+				assertArrayEquals(genes(source), genes(new Chromosome(source)));
+				assertCounted(source);									//the source is untouched
+			}
+		}
+	}
+}
@@ -0,0 +1,56 @@
+/* ConflictHistogramTest.java
+ *
+ * Tests of ConflictHistogram.java against a TreeMap of the same counts.
+ *
+ * @version: 1.3
+ */
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.ArrayList;
+import java.util.TreeMap;
+import org.junit.jupiter.api.Test;
+
+public class ConflictHistogramTest {
+	@Test
+	public void tracksFewestAndMostConflictsLikeATreeMap() {
+		ConflictHistogram histogram = new ConflictHistogram(16);
+		TreeMap<Integer, Integer> expected = new TreeMap<Integer, Integer>();
+		ArrayList<Integer> values = new ArrayList<Integer>();
+		SplitMix64 rand = new SplitMix64(7);
+		int value = 0;
+
+		for(int i = 0; i < 200000; i++) {
+			if(values.isEmpty() || rand.nextInt(100) < 55) {
+				value = 2 * (rand.nextInt(4) == 0 ? rand.nextInt(1 << 20) : rand.nextInt(300));	//sparse far values grow the histogram
+				values.add(value);
+				histogram.add(value);
+				expected.merge(value, 1, Integer::sum);
+			} else {
+				value = values.remove(rand.nextInt(values.size()));
+				histogram.remove(value);
+				expected.merge(value, -1, Integer::sum);
+				expected.remove(value, 0);
+			}
+			assertEquals(values.size(), histogram.size());
+			if(!values.isEmpty()) {
+				assertEquals((int)expected.firstKey(), histogram.getMin());
+				assertEquals((int)expected.lastKey(), histogram.getMax());
+			}
+		}
+	}
+
+	@Test
+	public void clearEmptiesTheHistogram() {
+		ConflictHistogram histogram = new ConflictHistogram(16);
+
+		histogram.add(4);
+		histogram.add(1000);
+		histogram.clear();
+		histogram.add(10);
+		histogram.add(12);
+		histogram.remove(10);
+		assertEquals(12, histogram.getMin());
+		assertEquals(12, histogram.getMax());
+	}
+}
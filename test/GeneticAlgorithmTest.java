@@ -0,0 +1,263 @@
+/* GeneticAlgorithmTest.java
+ *
+ * Tests of the operators of GeneticAlgorithm.java on small seeded populations.
+ * The crossover is compared with the original partially mapped crossover, which looked up each item with a scan,
+ * the replacement policies are checked to keep the capacity and spare parents and offspring,
+ * and the second parent of a mating is checked to differ from the first.
+ *
+ * @version: 1.3
+ */
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+
+public class GeneticAlgorithmTest {
+	/* Creates a started GA with a full starting population.
+	 *
+	 * @param: size of n queens
+	 * @param: the seed
+	 * @return: the genetic algorithm
+	 */
+	static GeneticAlgorithm started(int n, long seed) {
+		GeneticAlgorithm ga = new GeneticAlgorithm(n);
+
+		ga.setSeed(seed);
+		ga.setSolutionTarget(Integer.MAX_VALUE);						//a solution found while initializing would stop with a partial population
+		ga.start();
+		return ga;
+	}
+
+	/* Crossovers two parents the way the original partially mapped crossover did, scanning for each item.
+	 *
+	 * @param: genes of parent A
+	 * @param: genes of parent B
+	 * @param: first crossover point
+	 * @param: last crossover point
+	 * @return: genes of child A and child B
+	 */
+	static int[][] scanningCrossover(int[] parentA, int[] parentB, int crossPoint1, int crossPoint2) {
+		int[] child1 = parentA.clone();
+		int[] child2 = parentB.clone();
+		int pos1 = 0;
+		int pos2 = 0;
+
+		for(int i = crossPoint1; i <= crossPoint2; i++) {
+			int item1 = parentA[i];
+			int item2 = parentB[i];
+
+			for(int j = 0; j < child1.length; j++) {
+				if(child1[j] == item1) {
+					pos1 = j;
+				} else if(child1[j] == item2) {
+					pos2 = j;
+				}
+			}
+			if(item1 != item2) {
+				child1[pos1] = item2;
+				child1[pos2] = item1;
+			}
+
+			for(int j = 0; j < child2.length; j++) {
+				if(child2[j] == item2) {
+					pos1 = j;
+				} else if(child2[j] == item1) {
+					pos2 = j;
+				}
+			}
+			if(item1 != item2) {
+				child2[pos1] = item1;
+				child2[pos2] = item2;
+			}
+		}
+		return new int[][] {child1, child2};
+	}
+
+	/* Checks that genes hold every position once.
+	 *
+	 * @param: the genes
+	 */
+	static void assertPermutation(int[] genes) {
+		boolean[] seen = new boolean[genes.length];
+
+		for(int gene: genes) {
+			assertTrue(gene >= 0 && gene < genes.length && !seen[gene], "not a permutation: " + java.util.Arrays.toString(genes));
+			seen[gene] = true;
+		}
+	}
+
+	@Test
+	public void crossoverMatchesTheScanningCrossover() {
+		for(int n: new int[] {2, 5, 8, 13}) {
+			GeneticAlgorithm ga = started(n, n);
+
+			for(int trial = 0; trial < 10; trial++) {
+				ga.exchangeMutation(0, 3);								//new parents for every trial
+				ga.exchangeMutation(1, 3);
+				int[] parentA = ChromosomeTest.genes(ga.getChromosome(0));
+				int[] parentB = ChromosomeTest.genes(ga.getChromosome(1));
+
+				for(int crossPoint1 = 0; crossPoint1 < n; crossPoint1++) {
+					for(int crossPoint2 = crossPoint1; crossPoint2 < n; crossPoint2++) {
+						int[][] expected = scanningCrossover(parentA, parentB, crossPoint1, crossPoint2);
+
+						ga.partiallyMappedCrossover(0, 1, 2, 3, crossPoint1, crossPoint2);
+						assertArrayEquals(expected[0], ChromosomeTest.genes(ga.getChromosome(2)));
+						assertArrayEquals(expected[1], ChromosomeTest.genes(ga.getChromosome(3)));
+						ChromosomeTest.assertCounted(ga.getChromosome(2));
+						ChromosomeTest.assertCounted(ga.getChromosome(3));
+					}
+				}
+				assertArrayEquals(parentA, ChromosomeTest.genes(ga.getChromosome(0)));
+				assertArrayEquals(parentB, ChromosomeTest.genes(ga.getChromosome(1)));
+			}
+		}
+	}
+
+	@Test
+	public void crossoverChildrenArePermutations() {
+		GeneticAlgorithm ga = started(32, 5);
+
+		for(int trial = 0; trial < 2000; trial++) {
+			int parentA = trial % ga.getPopSize();
+			int parentB = (trial * 7 + 1) % ga.getPopSize();
+			int child1 = (trial * 3 + 2) % ga.getPopSize();
+			int child2 = (trial * 5 + 3) % ga.getPopSize();
+
+			if(child1 == child2 || child1 == parentA || child1 == parentB || child2 == parentA || child2 == parentB) {
+				continue;
+			}
+			ga.partiallyMappedCrossover(parentA, parentB, child1, child2);
+			assertPermutation(ChromosomeTest.genes(ga.getChromosome(child1)));
+			assertPermutation(ChromosomeTest.genes(ga.getChromosome(child2)));
+			ChromosomeTest.assertCounted(ga.getChromosome(child1));
+		}
+		ga.getFitness();
+		assertEquals(ga.getBestConflicts(), ga.getFittest(1).get(0).getConflicts());
+	}
+
+	@Test
+	public void boundedPopulationNeverExceedsItsCapacity() {
+		for(GeneticAlgorithm.Replacement policy: GeneticAlgorithm.Replacement.values()) {
+			GeneticAlgorithm ga = new GeneticAlgorithm(12);
+			int largest = 0;
+
+			ga.setSeed(21);
+			ga.setMatingProb(1.0);
+			ga.setSolutionTarget(Integer.MAX_VALUE);
+			ga.setPopulationLimit(100, policy);
+			ga.start();
+			for(int epoch = 0; epoch < 200; epoch++) {
+				ga.nextEpoch();
+				assertTrue(ga.getPopSize() <= 100, policy + " grew to " + ga.getPopSize());
+				largest = Math.max(largest, ga.getPopSize());
+			}
+			assertEquals(100, largest, policy + " never reached its capacity");
+		}
+	}
+
+	@Test
+	public void replacementSparesParentsOffspringAndSolutions() {
+		for(GeneticAlgorithm.Replacement policy: GeneticAlgorithm.Replacement.values()) {
+			GeneticAlgorithm ga = new GeneticAlgorithm(12);
+
+			ga.setSeed(22);
+			ga.setMatingProb(1.0);
+			ga.setSolutionTarget(Integer.MAX_VALUE);
+			ga.setPopulationLimit(100, policy);
+			ga.start();
+			while(ga.getPopSize() < 100) {
+				ga.nextEpoch();
+			}
+
+			for(int epoch = 0; epoch < 50; epoch++) {
+				int size = ga.getPopSize();
+				int[][] genes = new int[size][];
+				int[] births = new int[size];
+				int[] conflicts = new int[size];
+				int born = ga.getEvaluations();
+				int offspring = 0;
+				boolean solutionReplaced = false;
+				boolean replaceableLeft = false;
+
+				ga.getFitness();
+				ga.rouletteSelection();
+				for(int i = 0; i < size; i++) {
+					genes[i] = ChromosomeTest.genes(ga.getChromosome(i));
+					births[i] = ga.getChromosome(i).getBirth();
+					conflicts[i] = ga.getChromosome(i).getConflicts();
+				}
+				ga.mating();
+
+				assertEquals(size, ga.getPopSize(), policy + " grew while at capacity");
+				for(int i = 0; i < ga.getSelectedCount(); i++) {				//parents chosen while mating included
+					int parent = ga.getSelectedParents()[i];
+					assertEquals(births[parent], ga.getChromosome(parent).getBirth(), policy + " replaced parent " + parent);
+					assertArrayEquals(genes[parent], ChromosomeTest.genes(ga.getChromosome(parent)));
+				}
+				for(int i = 0; i < size; i++) {
+					Chromosome c = ga.getChromosome(i);
+					if(conflicts[i] == 0 && c.getBirth() != births[i]) {
+						solutionReplaced = true;
+					}
+					if(c.getBirth() >= born) {
+						offspring++;
+					} else if(!c.isSelected() && c.getConflicts() > 0) {
+						replaceableLeft = true;
+					}
+				}
+				assertTrue(!solutionReplaced || !replaceableLeft, policy + " replaced a solution before the other individuals");
+				assertEquals(ga.getEvaluations() - born, offspring, policy + " replaced an offspring of this epoch");
+				assertTrue(offspring > 0);
+				ga.prepNextEpoch();
+			}
+		}
+	}
+
+	@Test
+	public void chooseParentNeverReturnsTheFirstParent() {
+		GeneticAlgorithm ga = started(12, 23);
+
+		for(int epoch = 0; epoch < 200; epoch++) {
+			ga.getFitness();
+			ga.rouletteSelection();
+			for(int draw = 0; draw < 50 && ga.getSelectedCount() > 0; draw++) {
+				int parentA = ga.chooseParent();
+				int parentB = ga.chooseParent(parentA);
+				boolean listed = false;
+
+				assertTrue(parentB != parentA, "parent " + parentA + " chosen twice");
+				for(int i = 0; i < ga.getSelectedCount(); i++) {
+					listed |= ga.getSelectedParents()[i] == parentB;
+				}
+				assertTrue(listed && ga.getChromosome(parentB).isSelected(), "parent " + parentB + " not selected");
+			}
+			ga.prepNextEpoch();
+		}
+	}
+
+	@Test
+	public void chooseParentSelectsAnotherIndividualForALoneParent() {
+		GeneticAlgorithm ga = new GeneticAlgorithm(12);
+
+		ga.setSeed(24);
+		ga.setSelect(1, 1);
+		ga.setSolutionTarget(Integer.MAX_VALUE);
+		ga.start();
+		for(int epoch = 0; epoch < 500; epoch++) {
+			ga.getFitness();
+			ga.rouletteSelection();
+			assertEquals(1, ga.getSelectedCount());
+			int parentA = ga.getSelectedParents()[0];
+			int parentB = ga.chooseParent(parentA);
+
+			assertTrue(parentB != parentA && parentB >= 0 && parentB < ga.getPopSize(), "parent " + parentB + " for " + parentA);
+			assertEquals(2, ga.getSelectedCount());
+			assertTrue(ga.getChromosome(parentB).isSelected());
+			assertTrue(ga.chooseParent(parentA) == parentB);				//the only other selected parent from now on
+			ga.prepNextEpoch();
+		}
+	}
+}
@@ -0,0 +1,151 @@
+/* RandomSourceTest.java
+ *
+ * Tests of the bounded draws of RandomSource.java: ranges including both ends, the excluded value
+ * of nextIntExcept, and coarse uniformity and geometric means on a seeded SplitMix64.
+ *
+ * @version: 1.3
+ */
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+
+public class RandomSourceTest {
+	private static final int DRAWS = 200000;
+
+	/* Creates a source returning the same bits on every draw.
+	 *
+	 * @param: the bits
+	 * @return: the source
+	 */
+	static RandomSource constant(long bits) {
+		return new RandomSource() {
+			public long nextLong() {
+				return bits;
+			}
+
+			public RandomSource split() {
+				return this;
+			}
+		};
+	}
+
+	/* Checks that every count is within five standard deviations of the expected count.
+	 *
+	 * @param: draws of each value
+	 * @param: expected draws of each value
+	 */
+	static void assertUniform(int[] counts, double expected) {
+		for(int i = 0; i < counts.length; i++) {
+			assertTrue(Math.abs(counts[i] - expected) < 5 * Math.sqrt(expected), "value " + i + " drawn " + counts[i] + " times, expected " + expected);
+		}
+	}
+
+	@Test
+	public void extremeBitsGiveTheEndsOfTheRange() {
+		RandomSource lowest = constant(1L << 32);					//the smallest draw Lemire's method never rejects
+		RandomSource highest = constant(-1L);
+
+		for(int bound: new int[] {1, 2, 3, 8, 1000, Integer.MAX_VALUE}) {
+			assertEquals(0, lowest.nextInt(bound));
+			assertEquals(bound - 1, highest.nextInt(bound), "last index of " + bound);
+		}
+		assertEquals(-5, lowest.nextInt(-5, 5));
+		assertEquals(5, highest.nextInt(-5, 5));
+		assertEquals(7, highest.nextInt(0, 7));						//the last row can be drawn
+		assertEquals(1, lowest.nextIntExcept(8, 0));
+		assertEquals(7, highest.nextIntExcept(8, 0));
+		assertEquals(6, highest.nextIntExcept(8, 7));
+		assertEquals(0, lowest.nextIntExcept(2, 1));
+		assertEquals(1, highest.nextIntExcept(2, 0));
+	}
+
+	@Test
+	public void nextIntStaysInRangeAndReachesBothEnds() {
+		SplitMix64 rand = new SplitMix64(11);
+
+		for(int i = 0; i < 1000; i++) {
+			assertEquals(0, rand.nextInt(1));
+			assertEquals(3, rand.nextInt(3, 3));
+		}
+		for(int bound: new int[] {2, 3, 7, 8, 100}) {
+			boolean[] seen = new boolean[bound];
+			for(int i = 0; i < 100 * bound; i++) {
+				int r = rand.nextInt(bound);
+				assertTrue(r >= 0 && r < bound, r + " out of [0, " + bound + ")");
+				seen[r] = true;
+			}
+			for(int value = 0; value < bound; value++) {
+				assertTrue(seen[value], value + " never drawn below " + bound);
+			}
+		}
+		for(int i = 0; i < DRAWS; i++) {
+			int r = rand.nextInt(Integer.MAX_VALUE);
+			assertTrue(r >= 0 && r < Integer.MAX_VALUE);
+			r = rand.nextInt(-3, 4);
+			assertTrue(r >= -3 && r <= 4);
+		}
+	}
+
+	@Test
+	public void nextIntExceptNeverReturnsTheExcludedValue() {
+		SplitMix64 rand = new SplitMix64(12);
+
+		for(int bound: new int[] {2, 3, 8, 33}) {
+			for(int except = 0; except < bound; except++) {
+				int[] counts = new int[bound];
+				for(int i = 0; i < 2000 * (bound - 1); i++) {
+					int r = rand.nextIntExcept(bound, except);
+					assertNotEquals(except, r);
+					assertTrue(r >= 0 && r < bound, r + " out of [0, " + bound + ")");
+					counts[r]++;
+				}
+				counts[except] = 2000;								//not drawn, filled in so the others can be compared
+				assertUniform(counts, 2000);
+			}
+		}
+	}
+
+	@Test
+	public void nextIntIsUniform() {
+		SplitMix64 rand = new SplitMix64(13);
+		int[] counts = new int[10];
+		int below = 0;
+		int bound = 0x60000000;										//3 * 2^29, where a modulo would favour the lower values
+
+		for(int i = 0; i < DRAWS; i++) {
+			counts[rand.nextInt(10)]++;
+			if(rand.nextInt(bound) < bound / 2) {
+				below++;
+			}
+		}
+		assertUniform(counts, DRAWS / 10.0);
+		assertUniform(new int[] {below, DRAWS - below}, DRAWS / 2.0);
+	}
+
+	@Test
+	public void nextGeometricMatchesTheDistribution() {
+		SplitMix64 rand = new SplitMix64(14);
+
+		assertEquals(0, rand.nextGeometric(1.0));
+		assertEquals(Integer.MAX_VALUE, rand.nextGeometric(0.0));
+		for(double p: new double[] {0.5, 0.1, 0.01}) {
+			long total = 0;
+			int zeros = 0;
+			for(int i = 0; i < DRAWS; i++) {
+				int r = rand.nextGeometric(p);
+				assertTrue(r >= 0);
+				total += r;
+				if(r == 0) {
+					zeros++;
+				}
+			}
+			double mean = (double)total / DRAWS;
+			double expected = (1 - p) / p;
+			assertTrue(Math.abs(mean - expected) < 0.03 * expected + 0.01, "mean " + mean + " for p " + p);
+			assertTrue(Math.abs(zeros - p * DRAWS) < 0.05 * p * DRAWS + 100, zeros + " zeros for p " + p);
+		}
+	}
+}
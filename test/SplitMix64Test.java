@@ -0,0 +1,55 @@
+/* SplitMix64Test.java
+ *
+ * Tests of SplitMix64.java: seeded generators repeat, unseeded ones never share a stream.
+ *
+ * @version: 1.3
+ */
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+
+import java.util.HashSet;
+import org.junit.jupiter.api.Test;
+
+public class SplitMix64Test {
+	/* Draws the first values of a generator.
+	 *
+	 * @param: the generator
+	 * @param: number of values
+	 * @return: the values
+	 */
+	private static long[] draw(RandomSource source, int count) {
+		long[] values = new long[count];
+
+		for(int i = 0; i < count; i++) {
+			values[i] = source.nextLong();
+		}
+		return values;
+	}
+
+	@Test
+	public void seededGeneratorsRepeat() {
+		assertEquals(new SplitMix64(42).split().nextLong(), new SplitMix64(42).split().nextLong());
+	}
+
+	@Test
+	public void defaultInstancesSplitDifferentStreams() {
+		SplitMix64 a = new SplitMix64();
+		SplitMix64 b = new SplitMix64();
+		HashSet<Long> firstDraws = new HashSet<Long>();
+
+		assertNotEquals(draw(a.split(), 1)[0], draw(b.split(), 1)[0]);
+		for(int i = 0; i < 4; i++) {										//no split of one is a split of the other
+			firstDraws.add(draw(a.split(), 1)[0]);
+		}
+		for(int i = 0; i < 4; i++) {
+			long first = draw(b.split(), 1)[0];
+			assertEquals(false, firstDraws.contains(first));
+		}
+	}
+
+	@Test
+	public void defaultInstancesHaveDifferentGammas() {
+		assertNotEquals(new SplitMix64().getGamma(), new SplitMix64().getGamma());
+	}
+}